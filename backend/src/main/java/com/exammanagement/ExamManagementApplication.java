@@ -2,8 +2,10 @@ package com.exammanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ExamManagementApplication {
     public static void main(String[] args) {
         SpringApplication.run(ExamManagementApplication.class, args);
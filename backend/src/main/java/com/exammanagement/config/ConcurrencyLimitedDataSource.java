@@ -0,0 +1,121 @@
+package com.exammanagement.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many threads may hold connections at once. Callers beyond the
+ * limit park on a fair semaphore, which is cheap for virtual threads, instead of
+ * all contending inside the connection pool. The permit is taken per thread: a
+ * thread that already holds a connection gets further ones without waiting, so
+ * nested acquisitions cannot deadlock on the semaphore, and the permit is
+ * returned when the thread's last connection is closed. The limit should be
+ * below the pool size to leave room for those nested connections.
+ *
+ * <p>The target is not handed out through {@link #unwrap}, it would bypass the
+ * limit.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    // Connections currently open per thread, the thread holds a permit while above zero
+    private final ThreadLocal<AtomicInteger> openConnections = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, long acquireTimeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger open = acquire();
+        try {
+            return limited(super.getConnection(), open);
+        } catch (SQLException | RuntimeException e) {
+            release(open);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger open = acquire();
+        try {
+            return limited(super.getConnection(username, password), open);
+        } catch (SQLException | RuntimeException e) {
+            release(open);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("DataSource of type " + iface.getName() + " is not exposed by the concurrency limit");
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    private AtomicInteger acquire() throws SQLException {
+        AtomicInteger open = openConnections.get();
+        if (open.get() > 0) {
+            open.incrementAndGet(); // Nested, the thread already holds a permit
+            return open;
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database connection available within " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        open.incrementAndGet();
+        return open;
+    }
+
+    private void release(AtomicInteger open) {
+        if (open.decrementAndGet() == 0) {
+            permits.release();
+        }
+    }
+
+    private Connection limited(Connection connection, AtomicInteger open) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            release(open);
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,85 @@
+package com.exammanagement.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-time migration of option indices from the old element collection tables
+ * ({@code attempt_selected_options}, {@code question_correct_answers}) into the
+ * bitmask columns. Runs after the schema update and before the application
+ * serves requests; the old tables are dropped once copied, so later starts do
+ * nothing.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class OptionSetMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(OptionSetMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        migrate("attempt_selected_options", "attempt_answer_id", "attempt_answers", "selected_options");
+        migrate("question_correct_answers", "question_id", "questions", "correct_options");
+    }
+
+    private void migrate(String legacyTable, String keyColumn, String table, String maskColumn) {
+        if (!tableExists(legacyTable)) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> masks = new HashMap<>();
+            jdbcTemplate.query("SELECT " + keyColumn + ", option_index FROM " + legacyTable,
+                    (RowCallbackHandler) rs -> {
+                        int optionIndex = rs.getInt(2);
+                        if (optionIndex < 0 || optionIndex >= 32) {
+                            log.warn("Skipping option index {} of {} {}", optionIndex, keyColumn, rs.getLong(1));
+                            return;
+                        }
+                        masks.merge(rs.getLong(1), 1 << optionIndex, (a, b) -> a | b);
+                    });
+
+            List<Object[]> updates = new ArrayList<>(masks.size());
+            masks.forEach((id, mask) -> updates.add(new Object[]{mask, id}));
+            jdbcTemplate.batchUpdate("UPDATE " + table + " SET " + maskColumn + " = ? WHERE id = ?", updates);
+            jdbcTemplate.execute("DROP TABLE " + legacyTable);
+
+            log.info("Migrated option indices of {} rows from {} to {}.{}", masks.size(), legacyTable, table, maskColumn);
+        });
+    }
+
+    private boolean tableExists(String tableName) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{tableName, tableName.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
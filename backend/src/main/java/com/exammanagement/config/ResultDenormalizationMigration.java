@@ -0,0 +1,36 @@
+package com.exammanagement.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the exam id and auto-submitted flag that results copy from their attempt,
+ * for results created before the columns existed. New results are inserted with
+ * both set, so later starts update nothing.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ResultDenormalizationMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultDenormalizationMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        int updated = jdbcTemplate.update(
+                "UPDATE results r SET " +
+                "exam_id = (SELECT a.exam_id FROM exam_attempts a WHERE a.id = r.exam_attempt_id), " +
+                "auto_submitted = (SELECT a.is_auto_submitted FROM exam_attempts a WHERE a.id = r.exam_attempt_id) " +
+                "WHERE r.exam_id IS NULL OR r.auto_submitted IS NULL");
+        if (updated > 0) {
+            log.info("Copied exam id and auto-submitted flag into {} results", updated);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.exammanagement.controller;
 
 import com.exammanagement.dto.DashboardDTO;
-import com.exammanagement.service.DashboardService;
+import com.exammanagement.service.DashboardCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -13,12 +16,23 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     @Autowired
-    private DashboardService dashboardService;
+    private DashboardCache dashboardCache;
 
     @GetMapping
-    public ResponseEntity<DashboardDTO> getDashboard(Authentication authentication) {
+    public ResponseEntity<DashboardDTO> getDashboard(Authentication authentication, WebRequest request) {
         String username = authentication.getName();
-        DashboardDTO dashboard = dashboardService.getDashboard(username);
-        return ResponseEntity.ok(dashboard);
+        DashboardCache.Snapshot snapshot = dashboardCache.getSnapshot(username);
+
+        // no-cache lets the browser keep the dashboard but revalidate it with If-None-Match
+        if (request.checkNotModified(snapshot.getETag())) {
+            // checkNotModified already wrote the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(snapshot.getDashboard());
     }
 }
@@ -1,7 +1,9 @@
 package com.exammanagement.controller;
 
 import com.exammanagement.dto.ExamDTO;
+import com.exammanagement.dto.ExamStatisticsDTO;
 import com.exammanagement.service.ExamService;
+import com.exammanagement.service.ExamStatisticsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,6 +21,9 @@ public class ExamController {
     @Autowired
     private ExamService examService;
 
+    @Autowired
+    private ExamStatisticsService examStatisticsService;
+
     @PostMapping
     public ResponseEntity<?> createExam(@Valid @RequestBody ExamDTO examDTO, Authentication authentication) {
         try {
@@ -98,4 +103,21 @@ public class ExamController {
                     .body("Error adding candidates: " + e.getMessage());
         }
     }
+
+    @GetMapping("/{id}/statistics")
+    public ResponseEntity<?> getExamStatistics(@PathVariable Long id) {
+        try {
+            ExamStatisticsDTO statistics = examStatisticsService.getExamStatistics(id);
+            return ResponseEntity.ok(statistics);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Exam statistics not found: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/statistics/reconcile")
+    public ResponseEntity<?> reconcileStatistics() {
+        examStatisticsService.reconcile();
+        return ResponseEntity.ok().body("Exam statistics reconciled");
+    }
 }
@@ -1,14 +1,22 @@
 package com.exammanagement.controller;
 
 import com.exammanagement.dto.*;
+import com.exammanagement.service.AdmissionRejectedException;
+import com.exammanagement.service.AttemptEventHub;
 import com.exammanagement.service.ExamExecutionService;
+import com.exammanagement.service.ExamStartGate;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,14 +24,33 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200")
 public class ExamExecutionController {
 
+    // Where an admitted start queued and how long it waited
+    static final String QUEUE_POSITION_HEADER = "X-Queue-Position";
+    static final String QUEUE_WAIT_HEADER = "X-Queue-Wait-Ms";
+
     @Autowired
     private ExamExecutionService examExecutionService;
 
+    @Autowired
+    private ExamStartGate examStartGate;
+
+    @Autowired
+    private AttemptEventHub attemptEventHub;
+
     @PostMapping("/start")
     public ResponseEntity<?> startExam(@Valid @RequestBody StartExamDTO startExamDTO) {
         try {
-            ExamAttemptDTO attempt = examExecutionService.startExam(startExamDTO);
-            return ResponseEntity.ok(attempt);
+            // Starts pass the admission gate before opening a transaction
+            ExamStartGate.Admission<ExamAttemptDTO> admission =
+                    examStartGate.admit(() -> examExecutionService.startExam(startExamDTO));
+            return ResponseEntity.ok()
+                    .header(QUEUE_POSITION_HEADER, String.valueOf(admission.getQueuePosition()))
+                    .header(QUEUE_WAIT_HEADER, String.valueOf(admission.getWaitMillis()))
+                    .body(admission.getValue());
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new AdmissionRejectedDTO(e.getMessage(), e.getQueuePosition(), e.getRetryAfterSeconds()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Error starting exam: " + e.getMessage());
@@ -49,6 +76,27 @@ public class ExamExecutionController {
         }
     }
 
+    @GetMapping(path = "/attempt/{attemptId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAttemptEvents(@PathVariable Long attemptId) {
+        LocalDateTime deadline;
+        try {
+            deadline = examExecutionService.getOpenAttemptDeadline(attemptId);
+        } catch (RuntimeException e) {
+            SseEmitter error = new SseEmitter();
+            try {
+                error.send("Error subscribing to exam attempt: " + e.getMessage(), MediaType.TEXT_PLAIN);
+                error.complete();
+            } catch (IOException sendError) {
+                error.completeWithError(sendError);
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        SseEmitter emitter = attemptEventHub.subscribe(attemptId, deadline);
+        // A submit committed between the check above and the subscription was published before it
+        examExecutionService.getSubmittedNotice(attemptId).ifPresent(attemptEventHub::sendSubmitted);
+        return ResponseEntity.ok(emitter);
+    }
+
     @PostMapping("/attempt/{attemptId}/save")
     public ResponseEntity<?> saveAnswers(
             @PathVariable Long attemptId,
@@ -62,6 +110,19 @@ public class ExamExecutionController {
         }
     }
 
+    @PatchMapping("/attempt/{attemptId}/answers")
+    public ResponseEntity<?> saveAnswerPatch(
+            @PathVariable Long attemptId,
+            @Valid @RequestBody AnswerPatchDTO patch) {
+        try {
+            SaveAckDTO ack = examExecutionService.saveAnswerPatch(attemptId, patch);
+            return ResponseEntity.ok(ack);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error saving answers: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/attempt/{attemptId}/submit")
     public ResponseEntity<?> submitExam(
             @PathVariable Long attemptId,
@@ -71,11 +132,16 @@ public class ExamExecutionController {
                 submitExamDTO = new SubmitExamDTO();
                 submitExamDTO.setAttemptId(attemptId);
             }
-            ResultDTO result = examExecutionService.submitExam(attemptId, submitExamDTO);
-            return ResponseEntity.ok(result);
+            SubmissionReceiptDTO receipt = examExecutionService.submitExam(attemptId, submitExamDTO);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(receipt);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Error submitting exam: " + e.getMessage());
         }
     }
+
+    @GetMapping("/admission-stats")
+    public ResponseEntity<AdmissionStatsDTO> getAdmissionStats() {
+        return ResponseEntity.ok(examStartGate.getStats());
+    }
 }
@@ -1,7 +1,13 @@
 package com.exammanagement.controller;
 
+import com.exammanagement.dto.QuestionAnalysisDTO;
+import com.exammanagement.dto.QuestionAvailabilityDTO;
 import com.exammanagement.dto.QuestionDTO;
+import com.exammanagement.dto.QuestionPageDTO;
+import com.exammanagement.dto.QuestionSearchResultDTO;
 import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.service.QuestionAnalysisService;
+import com.exammanagement.service.QuestionSearchIndex;
 import com.exammanagement.service.QuestionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +16,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -17,9 +25,17 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200")
 public class QuestionController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private QuestionAnalysisService questionAnalysisService;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
     @PostMapping
     public ResponseEntity<?> createQuestion(@Valid @RequestBody QuestionDTO questionDTO, Authentication authentication) {
         try {
@@ -64,6 +80,51 @@ public class QuestionController {
         return ResponseEntity.ok(questions);
     }
 
+    /**
+     * Lists question summaries one page at a time, in id order. Full questions are
+     * read with {@code GET /api/questions/{id}}.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getQuestionSummaries(
+            @RequestParam(required = false) DifficultyLevel difficulty,
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            QuestionPageDTO page = questionService.getQuestionSummaries(difficulty, topic, startDate, cursor,
+                    Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Error loading questions: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchQuestions(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) DifficultyLevel difficulty,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            QuestionSearchResultDTO result = questionSearchIndex.search(q, difficulty, limit);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error searching questions: " + e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error searching questions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of questions per difficulty and topic, for checking an exam's
+     * distribution before creating it.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<QuestionAvailabilityDTO>> getAvailability() {
+        return ResponseEntity.ok(questionService.getAvailability());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteQuestion(@PathVariable Long id) {
         try {
@@ -74,4 +135,33 @@ public class QuestionController {
                     .body("Question not found: " + e.getMessage());
         }
     }
+
+    /**
+     * Recomputes the item analysis of every question of an exam when {@code examId}
+     * is given, otherwise of one question (or the whole bank) across all exams.
+     */
+    @PostMapping("/item-analysis")
+    public ResponseEntity<?> runItemAnalysis(
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) Long questionId) {
+        try {
+            List<QuestionAnalysisDTO> analyses = examId != null
+                    ? questionAnalysisService.analyzeExam(examId)
+                    : questionAnalysisService.analyzeAcrossExams(questionId);
+            return ResponseEntity.ok(analyses);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error running item analysis: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/item-analysis")
+    public ResponseEntity<List<QuestionAnalysisDTO>> getExamItemAnalysis(@RequestParam Long examId) {
+        return ResponseEntity.ok(questionAnalysisService.getExamAnalysis(examId));
+    }
+
+    @GetMapping("/{id}/item-analysis")
+    public ResponseEntity<List<QuestionAnalysisDTO>> getQuestionItemAnalysis(@PathVariable Long id) {
+        return ResponseEntity.ok(questionAnalysisService.getQuestionAnalysis(id));
+    }
 }
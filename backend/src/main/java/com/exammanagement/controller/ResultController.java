@@ -1,36 +1,262 @@
 package com.exammanagement.controller;
 
+import com.exammanagement.dto.ExamBreakdownDTO;
+import com.exammanagement.dto.GradingStatsDTO;
+import com.exammanagement.dto.LeaderboardDTO;
+import com.exammanagement.dto.RegradeDiffDTO;
+import com.exammanagement.dto.RegradeJobDTO;
 import com.exammanagement.dto.ResultDTO;
+import com.exammanagement.dto.ResultPageDTO;
+import com.exammanagement.dto.SubmissionReceiptDTO;
+import com.exammanagement.service.GradingQueue;
+import com.exammanagement.service.LeaderboardService;
+import com.exammanagement.service.RegradeService;
+import com.exammanagement.service.ResultExportService;
+import com.exammanagement.service.ResultPendingException;
 import com.exammanagement.service.ResultService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/results")
 @CrossOrigin(origins = "http://localhost:4200")
 public class ResultController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ResultService resultService;
 
+    @Autowired
+    private GradingQueue gradingQueue;
+
+    @Autowired
+    private RegradeService regradeService;
+
+    @Autowired
+    private ResultExportService resultExportService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${exam.export.request-timeout-ms:600000}")
+    private long exportTimeoutMillis;
+
     @GetMapping("/attempt/{attemptId}")
     public ResponseEntity<?> getResultByAttemptId(@PathVariable Long attemptId) {
         try {
             ResultDTO result = resultService.getResultByAttemptId(attemptId);
             return ResponseEntity.ok(result);
+        } catch (ResultPendingException e) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new SubmissionReceiptDTO(attemptId, null, "PENDING", "/api/results/attempt/" + attemptId));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Result not found: " + e.getMessage());
         }
     }
 
+    /**
+     * Lists the results of an exam one page at a time. {@code sort} is
+     * {@code percentage} or {@code evaluatedAt}; pass the {@code nextCursor} of a
+     * page as {@code cursor} to get the following page.
+     */
     @GetMapping("/exam/{examId}")
-    public ResponseEntity<List<ResultDTO>> getResultsByExamId(@PathVariable Long examId) {
-        List<ResultDTO> results = resultService.getResultsByExamId(examId);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<?> getResultsByExamId(
+            @PathVariable Long examId,
+            @RequestParam(defaultValue = "percentage") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) Double maxScore,
+            @RequestParam(required = false) Boolean autoSubmitted) {
+        try {
+            ResultService.ResultSort resultSort = switch (sort) {
+                case "percentage" -> ResultService.ResultSort.PERCENTAGE;
+                case "evaluatedAt" -> ResultService.ResultSort.EVALUATED_AT;
+                default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+            };
+            if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                throw new IllegalArgumentException("Unsupported direction: " + direction);
+            }
+            ResultPageDTO page = resultService.getResultsByExamId(examId, resultSort,
+                    direction.equalsIgnoreCase("asc"), cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)),
+                    minScore, maxScore, autoSubmitted);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error listing results: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error listing results: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams all results of the exam with candidate details as CSV or NDJSON.
+     * The body is written while rows are read, without a Content-Length, so the
+     * response uses chunked transfer encoding. The emitter carries the long
+     * {@code exam.export.request-timeout-ms}; other async requests keep the default.
+     */
+    @GetMapping("/exam/{examId}/export")
+    public ResponseEntity<ResponseBodyEmitter> exportResultsByExamId(
+            @PathVariable Long examId,
+            @RequestParam(defaultValue = "csv") String format) {
+        ResultExportService.Format exportFormat;
+        try {
+            exportFormat = ResultExportService.Format.valueOf(format.toUpperCase());
+            resultExportService.checkExamExists(examId);
+        } catch (IllegalArgumentException e) {
+            return errorBody(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        } catch (RuntimeException e) {
+            return errorBody(HttpStatus.NOT_FOUND, "Error exporting results: " + e.getMessage());
+        }
+
+        MediaType contentType = MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8");
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(exportTimeoutMillis);
+        taskExecutor.execute(() -> {
+            try {
+                resultExportService.export(examId, exportFormat, new EmitterOutputStream(emitter, contentType));
+                emitter.complete();
+            } catch (Exception e) {
+                // Timed out or the client went away; the status is already sent
+                log.warn("Export of exam {} results stopped: {}", examId, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"exam-" + examId + "-results." + exportFormat.getExtension() + "\"")
+                .body(emitter);
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> errorBody(HttpStatus status, String message) {
+        MediaType contentType = MediaType.parseMediaType("text/plain;charset=UTF-8");
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitter.send(message.getBytes(StandardCharsets.UTF_8), contentType); // Held until the response starts
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.status(status).contentType(contentType).body(emitter);
+    }
+
+    /**
+     * Sends each buffer the export writes as one chunk of the emitter. The export
+     * writes through its own buffered writer, so chunks are not byte-sized.
+     */
+    private static final class EmitterOutputStream extends OutputStream {
+
+        private final ResponseBodyEmitter emitter;
+        private final MediaType contentType;
+
+        private EmitterOutputStream(ResponseBodyEmitter emitter, MediaType contentType) {
+            this.emitter = emitter;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            emitter.send(new byte[]{(byte) b}, contentType);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                emitter.send(Arrays.copyOfRange(b, off, off + len), contentType);
+            }
+        }
+    }
+
+    @GetMapping("/exam/{examId}/leaderboard")
+    public ResponseEntity<LeaderboardDTO> getLeaderboard(
+            @PathVariable Long examId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(examId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    @GetMapping("/exam/{examId}/breakdown")
+    public ResponseEntity<?> getExamBreakdown(@PathVariable Long examId) {
+        try {
+            ExamBreakdownDTO breakdown = resultService.getExamBreakdown(examId);
+            return ResponseEntity.ok(breakdown);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error loading score breakdown: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/grading-stats")
+    public ResponseEntity<GradingStatsDTO> getGradingStats() {
+        return ResponseEntity.ok(gradingQueue.getStats());
+    }
+
+    @PostMapping("/regrade")
+    public ResponseEntity<?> startRegrade(
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) Long questionId,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            RegradeJobDTO job = regradeService.startRegrade(examId, questionId, dryRun);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error starting re-grade: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/regrade/{jobId}")
+    public ResponseEntity<?> getRegradeJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(regradeService.getJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Re-grade job not found: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/regrade/{jobId}/diff")
+    public ResponseEntity<?> getRegradeDiff(@PathVariable Long jobId) {
+        try {
+            List<RegradeDiffDTO> diff = regradeService.getDiff(jobId);
+            return ResponseEntity.ok(diff);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Re-grade job not found: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/regrade/{jobId}")
+    public ResponseEntity<?> cancelRegrade(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(regradeService.cancelJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Re-grade job not found: " + e.getMessage());
+        }
     }
 }
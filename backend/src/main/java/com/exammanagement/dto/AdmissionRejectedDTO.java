@@ -0,0 +1,14 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionRejectedDTO {
+    private String message;
+    private Integer queuePosition; // Position in the waiting queue when the request gave up
+    private Integer retryAfterSeconds;
+}
@@ -0,0 +1,18 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class AdmissionStatsDTO {
+    private Integer maxConcurrent;
+    private Integer maxQueue;
+    private Integer active; // Requests currently admitted
+    private Integer queueDepth; // Requests currently waiting
+    private Integer maxQueueDepth;
+    private Long admitted;
+    private Long rejectedQueueFull;
+    private Long rejectedTimeout;
+    private Double averageWaitMillis;
+    private Long maxWaitMillis;
+    private Double averageServiceMillis;
+}
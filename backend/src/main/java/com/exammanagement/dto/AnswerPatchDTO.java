@@ -0,0 +1,19 @@
+package com.exammanagement.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerPatchDTO {
+    @NotNull(message = "Sequence is required")
+    private Long sequence; // Client-side counter, increases with every autosave
+
+    private List<AnswerSubmissionDTO> answers = new ArrayList<>(); // Only the answers changed since the last save
+}
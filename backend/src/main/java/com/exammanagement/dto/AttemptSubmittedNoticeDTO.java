@@ -0,0 +1,13 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptSubmittedNoticeDTO {
+    private Long attemptId;
+    private Boolean autoSubmitted; // True when the server submitted the attempt after its deadline
+}
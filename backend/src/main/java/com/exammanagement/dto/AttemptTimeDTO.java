@@ -0,0 +1,14 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptTimeDTO {
+    private Long attemptId;
+    private String deadline;
+    private Integer timeRemainingSeconds;
+}
@@ -19,6 +19,7 @@ public class ExamAttemptDTO {
     private String candidateEmail;
     private String startedAt;
     private String submittedAt;
+    private String deadline;
     private Integer timeRemainingSeconds;
     private Boolean isSubmitted;
     private Boolean isAutoSubmitted;
@@ -0,0 +1,14 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExamBreakdownDTO {
+    private Long examId;
+    private Long resultCount; // Results with a stored breakdown
+    private List<ScoreBreakdownDTO> byDifficulty;
+    private List<ScoreBreakdownDTO> byTopic;
+    private List<ScoreBreakdownDTO> byDifficultyAndTopic;
+}
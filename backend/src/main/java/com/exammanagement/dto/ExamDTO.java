@@ -39,6 +39,8 @@ public class ExamDTO {
     private String accessCode;
 
     private List<Long> questionIds = new ArrayList<>(); // For creating exam with specific questions
+    private List<String> topics = new ArrayList<>(); // Restricts randomly selected questions to these topics, empty for any
+    private List<Long> excludedQuestionIds = new ArrayList<>(); // Never selected at random
     private List<Long> candidateIds = new ArrayList<>(); // For inviting candidates
 
     private String createdBy;
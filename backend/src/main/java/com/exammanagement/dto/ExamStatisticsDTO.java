@@ -0,0 +1,17 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExamStatisticsDTO {
+    private Long examId;
+    private Long attemptCount;
+    private Long submittedCount;
+    private Long gradedCount;
+    private Double averageScore;
+    private Double standardDeviation;
+    private List<Long> histogram; // Result counts per 10% score bucket, from 0-10% to 90-100%
+    private String reconciledAt;
+}
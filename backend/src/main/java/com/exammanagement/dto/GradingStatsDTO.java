@@ -0,0 +1,17 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class GradingStatsDTO {
+    private Integer workers;
+    private Integer batchSize;
+    private Integer queueDepth; // Submitted attempts waiting to be graded
+    private Long oldestPendingSeconds;
+    private Long graded;
+    private Long failedBatches;
+    private Integer parked; // Attempts that failed too often, retried after a restart
+    private Double averageLagMillis; // From queueing to result insert
+    private Long maxLagMillis;
+    private String lastBatchAt;
+}
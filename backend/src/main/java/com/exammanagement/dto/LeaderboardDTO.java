@@ -0,0 +1,12 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LeaderboardDTO {
+    private Long examId;
+    private Long totalResults;
+    private List<LeaderboardEntryDTO> entries; // Best first
+}
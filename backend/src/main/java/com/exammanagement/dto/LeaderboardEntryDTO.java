@@ -0,0 +1,12 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class LeaderboardEntryDTO {
+    private Long rank; // Tied scores share a rank
+    private Long examAttemptId;
+    private String candidateName;
+    private Double percentage;
+    private Double percentile;
+}
@@ -0,0 +1,18 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class QuestionAnalysisDTO {
+    private Long questionId;
+    private Long examId; // Null for the analysis across all exams
+    private Long responseCount;
+    private Long omittedCount;
+    private Long correctCount;
+    private Double proportionCorrect;
+    private Double pointBiserial;
+    private List<Long> optionCounts; // Times each option was selected, by option index
+    private String computedAt;
+}
@@ -0,0 +1,15 @@
+package com.exammanagement.dto;
+
+import com.exammanagement.model.DifficultyLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionAvailabilityDTO {
+    private DifficultyLevel difficultyLevel;
+    private String topic;
+    private Integer questionCount;
+}
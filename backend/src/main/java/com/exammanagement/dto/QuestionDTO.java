@@ -1,6 +1,7 @@
 package com.exammanagement.dto;
 
 import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.model.OptionSet;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -26,6 +27,7 @@ public class QuestionDTO {
 
     @NotNull(message = "At least 2 options are required")
     @Size(min = 2, message = "At least 2 options are required")
+    @Size(max = OptionSet.MAX_OPTIONS, message = "At most 32 options are allowed")
     private List<QuestionOptionDTO> options = new ArrayList<>();
 
     @NotNull(message = "At least one correct answer is required")
@@ -47,4 +49,6 @@ public class QuestionDTO {
     private String createdAt;
 
     private String updatedAt;
+
+    private QuestionAnalysisDTO analysis; // Stored item analysis across all exams, read-only
 }
@@ -0,0 +1,16 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPageDTO {
+    private List<QuestionSummaryDTO> items;
+    private String nextCursor; // Pass as cursor to get the next page, null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,13 @@
+package com.exammanagement.dto;
+
+import com.exammanagement.model.DifficultyLevel;
+import lombok.Data;
+
+@Data
+public class QuestionSearchHitDTO {
+    private Long id;
+    private String questionText;
+    private String topic;
+    private DifficultyLevel difficultyLevel;
+    private Float score; // Relevance, only comparable within one search
+}
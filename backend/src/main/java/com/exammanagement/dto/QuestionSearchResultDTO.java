@@ -0,0 +1,12 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class QuestionSearchResultDTO {
+    private String query;
+    private Long totalHits; // All matches, hits holds the best of them
+    private List<QuestionSearchHitDTO> hits;
+}
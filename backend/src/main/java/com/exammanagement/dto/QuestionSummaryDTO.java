@@ -0,0 +1,14 @@
+package com.exammanagement.dto;
+
+import com.exammanagement.model.DifficultyLevel;
+import lombok.Data;
+
+@Data
+public class QuestionSummaryDTO {
+    private Long id;
+    private String questionText; // Cut to the first characters, ending in "…" when cut
+    private DifficultyLevel difficultyLevel;
+    private String topic;
+    private Integer optionCount;
+    private String createdAt;
+}
@@ -0,0 +1,17 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegradeDiffDTO {
+    private Long resultId;
+    private Long examAttemptId;
+    private Integer oldCorrectAnswers;
+    private Integer newCorrectAnswers;
+    private Double oldPercentage;
+    private Double newPercentage;
+}
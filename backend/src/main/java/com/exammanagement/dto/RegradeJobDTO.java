@@ -0,0 +1,21 @@
+package com.exammanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RegradeJobDTO {
+    private Long jobId;
+    private List<Long> examIds;
+    private Long questionId; // Set when the re-grade was started for a question
+    private Boolean dryRun; // Dry runs compute the diff without updating results
+    private String status; // QUEUED, RUNNING, COMPLETED, CANCELLED or FAILED
+    private Long totalAttempts;
+    private Long processedAttempts;
+    private Long changedResults;
+    private String queuedAt;
+    private String startedAt; // Null while queued
+    private String finishedAt;
+    private String error;
+}
@@ -4,15 +4,23 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ResultDTO {
     private Long id;
     private Long examAttemptId;
+    private String candidateName;
+    private String candidateEmail;
+    private Boolean autoSubmitted;
     private Integer totalQuestions;
     private Integer correctAnswers;
     private Integer wrongAnswers;
     private Double percentage;
     private String evaluatedAt;
+    private Long rank; // Among the exam's results, tied scores share a rank
+    private Double percentile; // Share of the exam's results scoring lower, ties counted half
+    private List<ScoreBreakdownDTO> breakdown; // Per difficulty and topic, null for results graded before it existed
 }
@@ -0,0 +1,16 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaveAckDTO {
+    private Long attemptId;
+    private Long sequence; // Last sequence applied on the server
+    private Boolean applied; // False when the patch was older than one already applied
+    private Integer savedAnswers;
+    private Integer timeRemainingSeconds;
+}
@@ -0,0 +1,17 @@
+package com.exammanagement.dto;
+
+import com.exammanagement.model.DifficultyLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreBreakdownDTO {
+    private DifficultyLevel difficultyLevel; // Null in a per-topic total
+    private String topic; // Null in a per-difficulty total
+    private Long correct;
+    private Long total;
+    private Double percentage;
+}
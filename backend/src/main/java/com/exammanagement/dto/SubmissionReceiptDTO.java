@@ -0,0 +1,15 @@
+package com.exammanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionReceiptDTO {
+    private Long attemptId;
+    private String submittedAt;
+    private String status; // PENDING until the grading queue has created the result
+    private String resultUrl;
+}
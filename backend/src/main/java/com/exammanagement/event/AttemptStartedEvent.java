@@ -0,0 +1,14 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class AttemptStartedEvent {
+    private final Long attemptId;
+    private final Long examId;
+    private final LocalDateTime deadline; // When the attempt runs out of time
+}
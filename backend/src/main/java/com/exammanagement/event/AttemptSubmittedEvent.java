@@ -0,0 +1,12 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AttemptSubmittedEvent {
+    private final Long attemptId;
+    private final Long examId;
+    private final boolean autoSubmitted;
+}
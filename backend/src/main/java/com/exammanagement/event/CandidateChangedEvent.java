@@ -0,0 +1,11 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CandidateChangedEvent {
+    private final Long candidateId;
+    private final ChangeType changeType;
+}
@@ -0,0 +1,7 @@
+package com.exammanagement.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,11 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ExamChangedEvent {
+    private final Long examId;
+    private final ChangeType changeType;
+}
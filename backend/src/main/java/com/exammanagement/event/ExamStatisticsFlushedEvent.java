@@ -0,0 +1,12 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class ExamStatisticsFlushedEvent {
+    private final Set<Long> examIds; // Exams whose statistics record was just updated
+}
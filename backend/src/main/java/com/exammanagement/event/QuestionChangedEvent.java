@@ -0,0 +1,11 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class QuestionChangedEvent {
+    private final Long questionId;
+    private final ChangeType changeType;
+}
@@ -0,0 +1,13 @@
+package com.exammanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ResultScoredEvent {
+    private final Long attemptId;
+    private final Long examId;
+    private final Double previousPercentage; // Null when the result was just created
+    private final double percentage;
+}
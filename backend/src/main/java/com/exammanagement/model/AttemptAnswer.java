@@ -6,7 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "attempt_answers")
+@Table(name = "attempt_answers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attempt_answers_attempt_question", columnNames = {"exam_attempt_id", "question_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,8 +28,7 @@ public class AttemptAnswer {
     @Column(nullable = false)
     private Integer questionOrder; // Order of question in this attempt (randomized)
 
-    @ElementCollection
-    @CollectionTable(name = "attempt_selected_options", joinColumns = @JoinColumn(name = "attempt_answer_id"))
-    @Column(name = "option_index")
-    private java.util.List<Integer> selectedOptionIndices = new java.util.ArrayList<>(); // Selected options by index
+    @Convert(converter = OptionSetConverter.class)
+    @Column(name = "selected_options", nullable = false, columnDefinition = "integer default 0 not null")
+    private OptionSet selectedOptions = OptionSet.EMPTY; // Selected options as a bitmask
 }
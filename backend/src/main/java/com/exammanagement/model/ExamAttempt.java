@@ -36,13 +36,27 @@ public class ExamAttempt {
     @Column(nullable = false)
     private Integer timeRemainingSeconds; // Time remaining when started
 
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deadline; // Absolute end time, fixed when the attempt starts
+
     @Column(nullable = false)
     private Boolean isSubmitted = false;
 
     @Column(nullable = false)
     private Boolean isAutoSubmitted = false; // Auto-submitted due to timeout
 
-    // Randomized question order for this attempt
+    @Column(nullable = false, updatable = false)
+    private Long lastSaveSequence = 0L; // Highest client autosave sequence applied, advanced by AnswerWriteBuffer
+
+    @Column(updatable = false)
+    private Long shuffleSeed; // Seed of the randomized question order, null for attempts created with all answer rows
+
+    @Lob
+    @Convert(converter = QuestionIdListConverter.class)
+    @Column(updatable = false)
+    private List<Long> questionIds; // Question ids in the order seen by the candidate, null for attempts started before it was stored
+
+    // Answered questions (all questions for attempts without a shuffle seed)
     @OneToMany(mappedBy = "examAttempt", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("questionOrder ASC")
     private List<AttemptAnswer> answers = new ArrayList<>();
@@ -0,0 +1,51 @@
+package com.exammanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Entity
+@Table(name = "exam_statistics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamStatistics {
+    public static final int HISTOGRAM_BUCKETS = 10; // 10 percentage points per bucket, 100% counts into the last
+
+    @Id
+    private Long examId;
+
+    @Column(nullable = false)
+    private Long attemptCount = 0L;
+
+    @Column(nullable = false)
+    private Long submittedCount = 0L;
+
+    @Column(nullable = false)
+    private Long gradedCount = 0L;
+
+    @Column(nullable = false)
+    private Double scoreSum = 0.0; // Sum of result percentages
+
+    @Column(nullable = false)
+    private Double scoreSquareSum = 0.0; // Sum of squared result percentages, for the standard deviation
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "exam_score_histogram", joinColumns = @JoinColumn(name = "exam_id"))
+    @MapKeyColumn(name = "bucket")
+    @Column(name = "result_count")
+    private Map<Integer, Long> histogram = new HashMap<>();
+
+    @Column(nullable = false)
+    private LocalDateTime reconciledAt = LocalDateTime.now();
+
+    public static int bucketOf(double percentage) {
+        int bucket = (int) (percentage / (100.0 / HISTOGRAM_BUCKETS));
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, bucket));
+    }
+}
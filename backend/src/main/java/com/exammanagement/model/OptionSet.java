@@ -0,0 +1,84 @@
+package com.exammanagement.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable set of option indices stored as a bitmask, bit {@code i} set when
+ * option {@code i} is included. Supports questions with up to {@link #MAX_OPTIONS}
+ * options.
+ */
+public final class OptionSet {
+    public static final int MAX_OPTIONS = 32;
+
+    public static final OptionSet EMPTY = new OptionSet(0);
+
+    private final int mask;
+
+    private OptionSet(int mask) {
+        this.mask = mask;
+    }
+
+    public static OptionSet fromMask(int mask) {
+        return mask == 0 ? EMPTY : new OptionSet(mask);
+    }
+
+    public static OptionSet of(Collection<Integer> indices) {
+        if (indices == null || indices.isEmpty()) {
+            return EMPTY;
+        }
+        int mask = 0;
+        for (Integer index : indices) {
+            if (index == null || index < 0 || index >= MAX_OPTIONS) {
+                throw new IllegalArgumentException("Invalid option index: " + index);
+            }
+            mask |= 1 << index;
+        }
+        return fromMask(mask);
+    }
+
+    public int toMask() {
+        return mask;
+    }
+
+    public boolean contains(int index) {
+        return index >= 0 && index < MAX_OPTIONS && (mask & (1 << index)) != 0;
+    }
+
+    public int size() {
+        return Integer.bitCount(mask);
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /**
+     * Returns the option indices in ascending order.
+     */
+    public List<Integer> toIndices() {
+        List<Integer> indices = new ArrayList<>(Integer.bitCount(mask));
+        int remaining = mask;
+        while (remaining != 0) {
+            indices.add(Integer.numberOfTrailingZeros(remaining));
+            remaining &= remaining - 1;
+        }
+        return indices;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof OptionSet optionSet && optionSet.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return toIndices().toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.exammanagement.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an {@link OptionSet} as its integer bitmask.
+ */
+@Converter
+public class OptionSetConverter implements AttributeConverter<OptionSet, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(OptionSet optionSet) {
+        return optionSet != null ? optionSet.toMask() : 0;
+    }
+
+    @Override
+    public OptionSet convertToEntityAttribute(Integer mask) {
+        return mask != null ? OptionSet.fromMask(mask) : OptionSet.EMPTY;
+    }
+}
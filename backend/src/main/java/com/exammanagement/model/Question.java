@@ -31,10 +31,9 @@ public class Question {
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<QuestionOption> options = new ArrayList<>();
 
-    @ElementCollection
-    @CollectionTable(name = "question_correct_answers", joinColumns = @JoinColumn(name = "question_id"))
-    @Column(name = "option_index")
-    private List<Integer> correctAnswerIndices = new ArrayList<>(); // For multiple correct answers
+    @Convert(converter = OptionSetConverter.class)
+    @Column(name = "correct_options", nullable = false, columnDefinition = "integer default 0 not null")
+    private OptionSet correctOptions = OptionSet.EMPTY; // Correct options as a bitmask, may hold several
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,49 @@
+package com.exammanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "question_analysis", indexes = {
+        @Index(name = "idx_question_analysis_exam", columnList = "examId"),
+        @Index(name = "idx_question_analysis_question", columnList = "questionId, examId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionAnalysis {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long questionId;
+
+    @Column
+    private Long examId; // Null for the analysis across all exams
+
+    @Column(nullable = false)
+    private Long responseCount; // Graded attempts that were given the question
+
+    @Column(nullable = false)
+    private Long omittedCount; // Graded attempts that left the question unanswered
+
+    @Column(nullable = false)
+    private Long correctCount;
+
+    @Column
+    private Double proportionCorrect; // Item difficulty p, null without responses
+
+    @Column
+    private Double pointBiserial; // Corrected item-total correlation, null when undefined
+
+    @Column(nullable = false, length = 400)
+    private String optionCounts; // Times each option was selected, comma separated by option index
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt = LocalDateTime.now();
+}
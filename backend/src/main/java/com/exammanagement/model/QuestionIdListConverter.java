@@ -0,0 +1,43 @@
+package com.exammanagement.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores a list of question ids as comma-separated text, keeping their order.
+ */
+@Converter
+public class QuestionIdListConverter implements AttributeConverter<List<Long>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<Long> questionIds) {
+        if (questionIds == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (Long questionId : questionIds) {
+            if (!text.isEmpty()) {
+                text.append(',');
+            }
+            text.append(questionId);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public List<Long> convertToEntityAttribute(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<Long> questionIds = new ArrayList<>();
+        if (!text.isEmpty()) {
+            for (String questionId : text.split(",")) {
+                questionIds.add(Long.parseLong(questionId));
+            }
+        }
+        return questionIds;
+    }
+}
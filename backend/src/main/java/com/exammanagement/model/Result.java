@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "results")
+@Table(name = "results", indexes = {
+        @Index(name = "idx_results_exam_percentage", columnList = "examId, percentage, id"),
+        @Index(name = "idx_results_exam_evaluated", columnList = "examId, evaluatedAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,6 +24,12 @@ public class Result {
     @JoinColumn(name = "exam_attempt_id", nullable = false, unique = true)
     private ExamAttempt examAttempt;
 
+    @Column
+    private Long examId; // Copied from the attempt so exam listings are served from the indexes above
+
+    @Column
+    private Boolean autoSubmitted; // Copied from the attempt, for filtering listings
+
     @Column(nullable = false)
     private Integer totalQuestions;
 
@@ -33,9 +42,16 @@ public class Result {
     @Column(nullable = false)
     private Double percentage; // Score percentage
 
+    @Convert(converter = ScoreBreakdownConverter.class)
+    @Column(length = 4096)
+    private ScoreBreakdown breakdown; // Correct and total answers per difficulty and topic, null for old results
+
     @Column(nullable = false)
     private LocalDateTime evaluatedAt = LocalDateTime.now();
 
+    @Column
+    private LocalDateTime regradedAt; // Last re-grade that changed the result, null if never re-graded
+
     @Column
     private Boolean resultEmailed = false; // For bonus feature: email notification
 }
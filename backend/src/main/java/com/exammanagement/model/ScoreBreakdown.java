@@ -0,0 +1,111 @@
+package com.exammanagement.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Immutable per-category score of one result: correct and total answers for
+ * every (difficulty, topic) pair of the exam, in the order of the exam's answer
+ * key. Stored as a compact byte encoding: a version byte and the entry count,
+ * then per entry the difficulty ordinal, the UTF-8 topic, the correct count and
+ * the total count, with all lengths and counts as unsigned varints.
+ */
+public final class ScoreBreakdown {
+    private static final int VERSION = 1;
+
+    public static final ScoreBreakdown EMPTY =
+            new ScoreBreakdown(new DifficultyLevel[0], new String[0], new int[0], new int[0]);
+
+    private final DifficultyLevel[] difficulties;
+    private final String[] topics;
+    private final int[] correct;
+    private final int[] total;
+
+    /**
+     * All arrays have one element per category. The arrays are not copied.
+     */
+    public ScoreBreakdown(DifficultyLevel[] difficulties, String[] topics, int[] correct, int[] total) {
+        this.difficulties = difficulties;
+        this.topics = topics;
+        this.correct = correct;
+        this.total = total;
+    }
+
+    public int size() {
+        return topics.length;
+    }
+
+    public DifficultyLevel getDifficulty(int index) {
+        return difficulties[index];
+    }
+
+    public String getTopic(int index) {
+        return topics[index];
+    }
+
+    public int getCorrect(int index) {
+        return correct[index];
+    }
+
+    public int getTotal(int index) {
+        return total[index];
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + topics.length * 16);
+        out.write(VERSION);
+        writeVarint(out, topics.length);
+        for (int i = 0; i < topics.length; i++) {
+            byte[] topic = topics[i].getBytes(StandardCharsets.UTF_8);
+            out.write(difficulties[i].ordinal());
+            writeVarint(out, topic.length);
+            out.write(topic, 0, topic.length);
+            writeVarint(out, correct[i]);
+            writeVarint(out, total[i]);
+        }
+        return out.toByteArray();
+    }
+
+    public static ScoreBreakdown decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        if (bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported score breakdown version: " + bytes[0]);
+        }
+        int[] position = {1};
+        int size = readVarint(bytes, position);
+        DifficultyLevel[] difficulties = new DifficultyLevel[size];
+        String[] topics = new String[size];
+        int[] correct = new int[size];
+        int[] total = new int[size];
+        for (int i = 0; i < size; i++) {
+            difficulties[i] = DifficultyLevel.values()[bytes[position[0]++]];
+            int length = readVarint(bytes, position);
+            topics[i] = new String(bytes, position[0], length, StandardCharsets.UTF_8);
+            position[0] += length;
+            correct[i] = readVarint(bytes, position);
+            total[i] = readVarint(bytes, position);
+        }
+        return new ScoreBreakdown(difficulties, topics, correct, total);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
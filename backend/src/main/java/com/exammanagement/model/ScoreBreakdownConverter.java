@@ -0,0 +1,21 @@
+package com.exammanagement.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link ScoreBreakdown} in its compact byte encoding.
+ */
+@Converter
+public class ScoreBreakdownConverter implements AttributeConverter<ScoreBreakdown, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(ScoreBreakdown breakdown) {
+        return breakdown != null ? breakdown.encode() : null;
+    }
+
+    @Override
+    public ScoreBreakdown convertToEntityAttribute(byte[] bytes) {
+        return bytes != null ? ScoreBreakdown.decode(bytes) : null;
+    }
+}
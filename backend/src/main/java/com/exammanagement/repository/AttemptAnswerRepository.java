@@ -0,0 +1,15 @@
+package com.exammanagement.repository;
+
+import com.exammanagement.model.AttemptAnswer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttemptAnswerRepository extends JpaRepository<AttemptAnswer, Long> {
+    List<AttemptAnswer> findByExamAttemptIdAndQuestionIdIn(Long examAttemptId, Collection<Long> questionIds);
+
+    List<AttemptAnswer> findByExamAttemptIdOrderByQuestionOrder(Long examAttemptId);
+}
@@ -4,6 +4,7 @@ import com.exammanagement.model.Candidate;
 import com.exammanagement.model.Exam;
 import com.exammanagement.model.ExamAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +16,7 @@ public interface ExamAttemptRepository extends JpaRepository<ExamAttempt, Long>
     List<ExamAttempt> findByCandidate(Candidate candidate);
     Optional<ExamAttempt> findByExamAndCandidate(Exam exam, Candidate candidate);
     List<ExamAttempt> findByIsSubmitted(Boolean isSubmitted);
+
+    @Query("SELECT a.id AS id, a.deadline AS deadline FROM ExamAttempt a WHERE a.isSubmitted = false")
+    List<OpenAttemptDeadline> findOpenAttemptDeadlines();
 }
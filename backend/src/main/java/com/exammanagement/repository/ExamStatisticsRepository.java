@@ -0,0 +1,9 @@
+package com.exammanagement.repository;
+
+import com.exammanagement.model.ExamStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExamStatisticsRepository extends JpaRepository<ExamStatistics, Long> {
+}
@@ -0,0 +1,12 @@
+package com.exammanagement.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an attempt that has not been submitted yet, used to rebuild
+ * the deadline schedule without loading whole attempts.
+ */
+public interface OpenAttemptDeadline {
+    Long getId();
+    LocalDateTime getDeadline();
+}
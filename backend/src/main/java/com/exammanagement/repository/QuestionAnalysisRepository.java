@@ -0,0 +1,35 @@
+package com.exammanagement.repository;
+
+import com.exammanagement.model.QuestionAnalysis;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface QuestionAnalysisRepository extends JpaRepository<QuestionAnalysis, Long> {
+
+    List<QuestionAnalysis> findByExamIdOrderByQuestionId(Long examId);
+
+    List<QuestionAnalysis> findByExamIdIsNull();
+
+    List<QuestionAnalysis> findByQuestionIdOrderByExamId(Long questionId);
+
+    Optional<QuestionAnalysis> findByQuestionIdAndExamIdIsNull(Long questionId);
+
+    @Modifying
+    @Query("DELETE FROM QuestionAnalysis a WHERE a.examId = :examId")
+    void deleteByExamId(@Param("examId") Long examId);
+
+    @Modifying
+    @Query("DELETE FROM QuestionAnalysis a WHERE a.questionId = :questionId")
+    void deleteByQuestionId(@Param("questionId") Long questionId);
+
+    @Modifying
+    @Query("DELETE FROM QuestionAnalysis a WHERE a.examId IS NULL AND (:questionId IS NULL OR a.questionId = :questionId)")
+    void deleteAcrossExams(@Param("questionId") Long questionId);
+}
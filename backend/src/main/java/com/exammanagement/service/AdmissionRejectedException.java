@@ -0,0 +1,21 @@
+package com.exammanagement.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown by {@link ExamStartGate} when a request cannot be admitted, either because
+ * the waiting queue is full or because it waited longer than allowed.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int queuePosition;
+    private final int retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, int queuePosition, int retryAfterSeconds) {
+        super(message);
+        this.queuePosition = queuePosition;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
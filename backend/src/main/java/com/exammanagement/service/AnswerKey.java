@@ -0,0 +1,192 @@
+package com.exammanagement.service;
+
+import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.model.ScoreBreakdown;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Correct options of every question of an exam, compiled into primitive arrays:
+ * question ids in ascending order and the matching correct-option bitmasks.
+ * Looking up and grading an answer allocates nothing. A key built with question
+ * topics and difficulties also maps every question to its (difficulty, topic)
+ * category for {@link ScoreBreakdown}s.
+ */
+public class AnswerKey {
+    private final long[] questionIds;
+    private final int[] correctMasks;
+
+    // Categories sorted by difficulty, then topic
+    private final DifficultyLevel[] categoryDifficulties;
+    private final String[] categoryTopics;
+    private final int[] categoryQuestionCounts;
+    private final int[] questionCategories; // Category of questionIds[i]
+
+    /**
+     * {@code questionIds} must be sorted ascending, {@code correctMasks[i]} belongs
+     * to {@code questionIds[i]}. The arrays are not copied.
+     */
+    AnswerKey(long[] questionIds, int[] correctMasks) {
+        this.questionIds = questionIds;
+        this.correctMasks = correctMasks;
+        this.categoryDifficulties = new DifficultyLevel[0];
+        this.categoryTopics = new String[0];
+        this.categoryQuestionCounts = new int[0];
+        this.questionCategories = null;
+    }
+
+    /**
+     * As {@link #AnswerKey(long[], int[])}, with the difficulty and topic of every
+     * question at the same index.
+     */
+    AnswerKey(long[] questionIds, int[] correctMasks, DifficultyLevel[] difficulties, String[] topics) {
+        this.questionIds = questionIds;
+        this.correctMasks = correctMasks;
+
+        Comparator<Map.Entry<DifficultyLevel, String>> order = Map.Entry.<DifficultyLevel, String>comparingByKey()
+                .thenComparing(Map.Entry.comparingByValue());
+        Map<Map.Entry<DifficultyLevel, String>, Integer> categories = new TreeMap<>(order);
+        for (int i = 0; i < questionIds.length; i++) {
+            categories.put(Map.entry(difficulties[i], topics[i]), 0);
+        }
+        this.categoryDifficulties = new DifficultyLevel[categories.size()];
+        this.categoryTopics = new String[categories.size()];
+        int category = 0;
+        for (Map.Entry<Map.Entry<DifficultyLevel, String>, Integer> entry : categories.entrySet()) {
+            categoryDifficulties[category] = entry.getKey().getKey();
+            categoryTopics[category] = entry.getKey().getValue();
+            entry.setValue(category++);
+        }
+
+        this.categoryQuestionCounts = new int[categories.size()];
+        this.questionCategories = new int[questionIds.length];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionCategories[i] = categories.get(Map.entry(difficulties[i], topics[i]));
+            categoryQuestionCounts[questionCategories[i]]++;
+        }
+    }
+
+    public int questionCount() {
+        return questionIds.length;
+    }
+
+    /**
+     * Returns the position of the question in the key, or a negative value when
+     * the question is not part of it.
+     */
+    public int indexOf(long questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+
+    public long questionIdAt(int index) {
+        return questionIds[index];
+    }
+
+    public int correctMask(int index) {
+        return correctMasks[index];
+    }
+
+    /**
+     * Returns true when the selection exactly matches the correct options of the
+     * question. Questions that are not part of the exam are never correct.
+     */
+    public boolean isCorrect(long questionId, int selectedMask) {
+        int index = indexOf(questionId);
+        return index >= 0 && correctMasks[index] == selectedMask;
+    }
+
+    /**
+     * Counts the correct answers among {@code questionIds[from..to)} with the
+     * matching {@code selectedMasks}.
+     */
+    public int countCorrect(long[] questionIds, int[] selectedMasks, int from, int to) {
+        int correct = 0;
+        for (int i = from; i < to; i++) {
+            if (isCorrect(questionIds[i], selectedMasks[i])) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    public int categoryCount() {
+        return categoryTopics.length;
+    }
+
+    /**
+     * Category of the question at {@code index}, or -1 when the key was built
+     * without categories.
+     */
+    public int categoryOf(int index) {
+        return questionCategories == null ? -1 : questionCategories[index];
+    }
+
+    /**
+     * Counts the given questions that are part of the key, e.g. the questions an
+     * attempt was given minus those removed from the exam since. Adds the count
+     * per category to {@code categoryTotals} and returns the total.
+     */
+    public int countQuestions(List<Long> questionIds, int[] categoryTotals) {
+        int count = 0;
+        for (Long questionId : questionIds) {
+            int index = indexOf(questionId);
+            if (index < 0) {
+                continue;
+            }
+            count++;
+            int category = categoryOf(index);
+            if (category >= 0) {
+                categoryTotals[category]++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Builds the breakdown of an attempt from its correct answers per category.
+     * Totals are the answered questions per category, or every question of the
+     * exam when {@code categoryAnswered} is null.
+     */
+    public ScoreBreakdown breakdown(int[] categoryCorrect, int[] categoryAnswered) {
+        return new ScoreBreakdown(categoryDifficulties, categoryTopics, categoryCorrect,
+                categoryAnswered != null ? categoryAnswered : categoryQuestionCounts);
+    }
+
+    /**
+     * Breakdown of the answers {@code questionIds[from..to)} with the matching
+     * {@code selectedMasks}, totals as for {@link #breakdown(int[], int[])}.
+     */
+    public ScoreBreakdown breakdown(long[] questionIds, int[] selectedMasks, int from, int to,
+                                   boolean allQuestions) {
+        return breakdown(questionIds, selectedMasks, from, to, allQuestions ? categoryQuestionCounts : null);
+    }
+
+    /**
+     * Breakdown of the answers {@code questionIds[from..to)} with the matching
+     * {@code selectedMasks}, totalled against {@code categoryTotals}, or against the
+     * answered questions when it is null.
+     */
+    public ScoreBreakdown breakdown(long[] questionIds, int[] selectedMasks, int from, int to,
+                                   int[] categoryTotals) {
+        int[] categoryCorrect = new int[categoryCount()];
+        int[] categoryAnswered = categoryTotals == null ? new int[categoryCount()] : null;
+        for (int i = from; i < to; i++) {
+            int index = indexOf(questionIds[i]);
+            int category = index >= 0 ? categoryOf(index) : -1;
+            if (category < 0) {
+                continue;
+            }
+            if (categoryAnswered != null) {
+                categoryAnswered[category]++;
+            }
+            if (correctMasks[index] == selectedMasks[i]) {
+                categoryCorrect[category]++;
+            }
+        }
+        return breakdown(categoryCorrect, categoryTotals != null ? categoryTotals : categoryAnswered);
+    }
+}
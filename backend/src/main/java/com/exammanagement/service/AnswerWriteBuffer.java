@@ -0,0 +1,305 @@
+package com.exammanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.exammanagement.model.OptionSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds live answer state for running attempts and writes it to the database in
+ * JDBC batches. Repeated saves for the same question are coalesced, so only the
+ * latest selection per question is written. Pending answers are flushed every
+ * {@code exam.autosave.flush-interval-ms}, on shutdown, and in the background
+ * when more than {@code exam.autosave.max-pending-answers} are buffered. Every
+ * flush runs in its own transaction, never in the one of the request that
+ * staged the answers. Answers are upserted on the unique attempt and question
+ * key, so rows that do not exist yet are created and a flush racing a submit
+ * cannot duplicate one. When a batch fails, its attempts are written one by
+ * one; an attempt that keeps failing, e.g. because it was deleted, is dropped
+ * after {@code exam.autosave.max-flush-failures} flushes.
+ */
+@Component
+public class AnswerWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerWriteBuffer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${exam.autosave.max-pending-answers:20000}")
+    private int maxPendingAnswers;
+
+    @Value("${exam.autosave.max-flush-failures:10}")
+    private int maxFlushFailures;
+
+    private final Map<Long, PendingAttempt> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingAnswerCount = new AtomicInteger();
+
+    // Attempts taken out of the buffer by the running flush, still visible to readers until committed
+    private volatile Map<Long, PendingAttempt> inFlight = Collections.emptyMap();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Writes in a new transaction, also when a flush is triggered inside a caller's transaction
+    private TransactionTemplate writeTransaction;
+
+    // Runs flushes triggered by a full buffer, so the request that filled it does not wait for them
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autosave-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    // Upsert on the unique (exam_attempt_id, question_id) key, a row written concurrently by a submit is updated
+    private static final String MERGE_ANSWER =
+            "MERGE INTO attempt_answers a USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER), " +
+            "CAST(? AS INTEGER))) v (exam_attempt_id, question_id, question_order, selected_options) " +
+            "ON a.exam_attempt_id = v.exam_attempt_id AND a.question_id = v.question_id " +
+            "WHEN MATCHED THEN UPDATE SET a.selected_options = v.selected_options " +
+            "WHEN NOT MATCHED THEN INSERT (exam_attempt_id, question_id, question_order, selected_options) " +
+            "VALUES (v.exam_attempt_id, v.question_id, v.question_order, v.selected_options)";
+
+    private static final String UPDATE_SEQUENCE =
+            "UPDATE exam_attempts SET last_save_sequence = ? WHERE id = ? AND last_save_sequence < ?";
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Buffers the given selections for an attempt. Returns false without buffering
+     * anything when {@code sequence} is not newer than the last one seen for the
+     * attempt. A null sequence is always accepted. {@code questionOrders} holds the
+     * position of each question, used when its answer row has to be created.
+     */
+    public boolean stage(Long attemptId, Long sequence, long persistedSequence, Map<Long, OptionSet> answers,
+                         Map<Long, Integer> questionOrders) {
+        int added;
+        while (true) {
+            PendingAttempt attempt = pending.computeIfAbsent(attemptId, id -> new PendingAttempt());
+            synchronized (attempt) {
+                if (attempt.detached) {
+                    continue; // Taken by a flush in the meantime, stage into a fresh entry
+                }
+                if (sequence != null) {
+                    long lastSequence = Math.max(persistedSequence, lastStagedSequence(attemptId, attempt));
+                    if (sequence <= lastSequence) {
+                        return false;
+                    }
+                    attempt.sequence = sequence;
+                }
+                int before = attempt.answers.size();
+                answers.forEach((questionId, selected) -> {
+                    attempt.answers.put(questionId, selected);
+                    attempt.questionOrders.put(questionId, questionOrders.get(questionId));
+                });
+                added = attempt.answers.size() - before;
+                break;
+            }
+        }
+
+        if (pendingAnswerCount.addAndGet(added) > maxPendingAnswers && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Returns the buffered selections for an attempt that are not yet in the
+     * database, keyed by question id.
+     */
+    public Map<Long, OptionSet> pendingAnswers(Long attemptId) {
+        Map<Long, OptionSet> result = new HashMap<>();
+        PendingAttempt flushing = inFlight.get(attemptId);
+        if (flushing != null) {
+            synchronized (flushing) {
+                result.putAll(flushing.answers);
+            }
+        }
+        PendingAttempt buffered = pending.get(attemptId);
+        if (buffered != null) {
+            synchronized (buffered) {
+                result.putAll(buffered.answers);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the buffered selections for an attempt so the caller can
+     * persist them itself, e.g. right before submitting. Waits for a running flush
+     * to finish first. Within a transaction the selections go back into the
+     * buffer unless it commits.
+     */
+    public Map<Long, OptionSet> drain(Long attemptId) {
+        PendingAttempt attempt;
+        Map<Long, OptionSet> answers;
+        flushLock.lock();
+        try {
+            attempt = pending.remove(attemptId);
+            if (attempt == null) {
+                return Collections.emptyMap();
+            }
+            synchronized (attempt) {
+                attempt.detached = true;
+                pendingAnswerCount.addAndGet(-attempt.answers.size());
+                answers = new HashMap<>(attempt.answers);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingAttempt drained = attempt;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        requeue(attemptId, drained);
+                    }
+                }
+            });
+        }
+        return answers;
+    }
+
+    @Scheduled(fixedDelayString = "${exam.autosave.flush-interval-ms:2000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            Map<Long, PendingAttempt> batch = new HashMap<>();
+            for (Long attemptId : new ArrayList<>(pending.keySet())) {
+                PendingAttempt attempt = pending.remove(attemptId);
+                if (attempt != null) {
+                    synchronized (attempt) {
+                        attempt.detached = true;
+                        pendingAnswerCount.addAndGet(-attempt.answers.size());
+                    }
+                    batch.put(attemptId, attempt);
+                }
+            }
+            inFlight = batch;
+
+            try {
+                writeTransaction.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                // A single bad attempt fails the whole batch, write them one by one to isolate it
+                log.warn("Flushing {} buffered attempts failed, writing them one by one", batch.size(), e);
+                batch.forEach(this::flushAttempt);
+            } finally {
+                inFlight = Collections.emptyMap();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        flush();
+    }
+
+    private void write(Map<Long, PendingAttempt> batch) {
+        List<Object[]> answers = new ArrayList<>();
+        List<Object[]> sequences = new ArrayList<>();
+
+        batch.forEach((attemptId, attempt) -> {
+            synchronized (attempt) {
+                attempt.answers.forEach((questionId, selected) -> answers.add(new Object[]{
+                        attemptId, questionId, attempt.questionOrders.get(questionId), selected.toMask()}));
+                if (attempt.sequence > 0) {
+                    sequences.add(new Object[]{attempt.sequence, attemptId, attempt.sequence});
+                }
+            }
+        });
+
+        // One statement per answer, rows of first-time answers are created
+        jdbcTemplate.batchUpdate(MERGE_ANSWER, answers);
+        jdbcTemplate.batchUpdate(UPDATE_SEQUENCE, sequences);
+    }
+
+    private void flushAttempt(Long attemptId, PendingAttempt attempt) {
+        try {
+            writeTransaction.executeWithoutResult(status -> write(Map.of(attemptId, attempt)));
+        } catch (RuntimeException e) {
+            if (++attempt.flushFailures >= maxFlushFailures) {
+                log.error("Dropping {} buffered answers of attempt {} after {} failed flushes",
+                        attempt.answers.size(), attemptId, attempt.flushFailures, e);
+            } else {
+                requeue(attemptId, attempt);
+            }
+        }
+    }
+
+    private void requeue(Long attemptId, PendingAttempt failed) {
+        // Answers staged after the failed write started are newer, keep them
+        Map<Long, OptionSet> older = new HashMap<>();
+        synchronized (failed) {
+            failed.answers.forEach(older::put);
+            failed.detached = false;
+        }
+        int[] added = {older.size()};
+        pending.merge(attemptId, failed, (newer, ignored) -> {
+            synchronized (newer) {
+                int before = newer.answers.size();
+                older.forEach(newer.answers::putIfAbsent);
+                failed.questionOrders.forEach(newer.questionOrders::putIfAbsent);
+                newer.sequence = Math.max(newer.sequence, failed.sequence);
+                newer.flushFailures = Math.max(newer.flushFailures, failed.flushFailures);
+                added[0] = newer.answers.size() - before;
+            }
+            return newer;
+        });
+        pendingAnswerCount.addAndGet(added[0]);
+    }
+
+    private long lastStagedSequence(Long attemptId, PendingAttempt attempt) {
+        PendingAttempt flushing = inFlight.get(attemptId);
+        return flushing != null ? Math.max(attempt.sequence, flushing.sequence) : attempt.sequence;
+    }
+
+    private static class PendingAttempt {
+        private final Map<Long, OptionSet> answers = new HashMap<>();
+        private final Map<Long, Integer> questionOrders = new HashMap<>();
+        private long sequence;
+        private int flushFailures;
+        private boolean detached; // Removed from the buffer, must not take new answers
+    }
+}
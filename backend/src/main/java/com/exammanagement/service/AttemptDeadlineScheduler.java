@@ -0,0 +1,142 @@
+package com.exammanagement.service;
+
+import com.exammanagement.event.AttemptStartedEvent;
+import com.exammanagement.event.AttemptSubmittedEvent;
+import com.exammanagement.repository.ExamAttemptRepository;
+import com.exammanagement.repository.OpenAttemptDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Auto-submits attempts whose time has run out, including attempts of candidates
+ * who closed the exam and never come back. Deadlines are kept in a priority queue
+ * ordered by expiry; each tick submits at most {@code exam.deadline.max-submits-per-tick}
+ * due attempts, so a large exam ending at the same minute is graded over a few
+ * seconds instead of in a single spike. An auto-submit that fails is retried
+ * with exponential backoff, up to {@code exam.deadline.max-retries} times,
+ * without holding up the attempts behind it. The queue is rebuilt from the
+ * open attempts in the database on startup.
+ */
+@Component
+public class AttemptDeadlineScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AttemptDeadlineScheduler.class);
+
+    @Autowired
+    private ExamAttemptRepository examAttemptRepository;
+
+    @Autowired
+    private ExamExecutionService examExecutionService;
+
+    @Value("${exam.deadline.max-submits-per-tick:50}")
+    private int maxSubmitsPerTick;
+
+    @Value("${exam.deadline.grace-seconds:5}")
+    private int graceSeconds;
+
+    @Value("${exam.deadline.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${exam.deadline.max-retries:5}")
+    private int maxRetries;
+
+    private final PriorityBlockingQueue<ScheduledDeadline> queue = new PriorityBlockingQueue<>();
+
+    // Deadline currently scheduled per attempt, entries for other deadlines are stale
+    private final Map<Long, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenAttempts() {
+        for (OpenAttemptDeadline attempt : examAttemptRepository.findOpenAttemptDeadlines()) {
+            schedule(attempt.getId(), attempt.getDeadline());
+        }
+        log.info("Scheduled {} open exam attempts for auto-submit", scheduled.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptStarted(AttemptStartedEvent event) {
+        schedule(event.getAttemptId(), event.getDeadline());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptSubmitted(AttemptSubmittedEvent event) {
+        // The queue entry is skipped when it comes due
+        scheduled.remove(event.getAttemptId());
+    }
+
+    @Scheduled(fixedDelayString = "${exam.deadline.tick-ms:1000}")
+    public void submitExpiredAttempts() {
+        LocalDateTime now = LocalDateTime.now();
+        int processed = 0;
+
+        while (processed < maxSubmitsPerTick) {
+            ScheduledDeadline next = queue.peek();
+            if (next == null || next.dueAt.isAfter(now)) {
+                return;
+            }
+            queue.poll();
+            if (!next.deadline.equals(scheduled.get(next.attemptId))) {
+                continue; // Submitted or rescheduled in the meantime
+            }
+
+            processed++;
+            try {
+                examExecutionService.submitExpiredAttempt(next.attemptId);
+                scheduled.remove(next.attemptId, next.deadline);
+            } catch (RuntimeException e) {
+                retry(next, now, e);
+            }
+        }
+    }
+
+    private void schedule(Long attemptId, LocalDateTime deadline) {
+        scheduled.put(attemptId, deadline);
+        queue.add(new ScheduledDeadline(attemptId, deadline, deadline.plusSeconds(graceSeconds), 0));
+    }
+
+    private void retry(ScheduledDeadline failed, LocalDateTime now, RuntimeException e) {
+        int failures = failed.failures + 1;
+        if (failures > maxRetries) {
+            // Stays open until the next restart schedules it again
+            scheduled.remove(failed.attemptId, failed.deadline);
+            log.error("Auto-submit of attempt {} failed {} times, giving up", failed.attemptId, failures, e);
+            return;
+        }
+
+        long delayMs = retryDelayMs << Math.min(failures - 1, 10);
+        log.warn("Auto-submit of attempt {} failed, retrying in {} ms", failed.attemptId, delayMs, e);
+        queue.add(new ScheduledDeadline(failed.attemptId, failed.deadline,
+                now.plusNanos(delayMs * 1_000_000), failures));
+    }
+
+    private static final class ScheduledDeadline implements Comparable<ScheduledDeadline> {
+        private final Long attemptId;
+        private final LocalDateTime deadline;
+        private final LocalDateTime dueAt; // Deadline plus grace, or the next retry
+        private final int failures;
+
+        private ScheduledDeadline(Long attemptId, LocalDateTime deadline, LocalDateTime dueAt, int failures) {
+            this.attemptId = attemptId;
+            this.deadline = deadline;
+            this.dueAt = dueAt;
+            this.failures = failures;
+        }
+
+        @Override
+        public int compareTo(ScheduledDeadline other) {
+            return dueAt.compareTo(other.dueAt);
+        }
+    }
+}
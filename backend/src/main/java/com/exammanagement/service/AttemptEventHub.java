@@ -0,0 +1,227 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.AttemptSubmittedNoticeDTO;
+import com.exammanagement.dto.AttemptTimeDTO;
+import com.exammanagement.dto.SaveAckDTO;
+import com.exammanagement.event.AttemptSubmittedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event channel per exam attempt. Connected clients receive
+ * {@code time} events with the remaining time, {@code save-ack} events for
+ * autosaves, {@code expired} as soon as the deadline passes and {@code submitted}
+ * when the attempt is submitted, after which the stream is closed. A single
+ * scheduled tick serves all connections; no thread is held per connection.
+ * Events are queued per connection and written on a virtual thread, so a slow
+ * client only delays its own events; one that falls more than
+ * {@code MAX_QUEUED_EVENTS} behind is disconnected.
+ */
+@Component
+public class AttemptEventHub {
+
+    @Value("${exam.push.time-sync-seconds:15}")
+    private int timeSyncSeconds;
+
+    @Value("${exam.push.grace-seconds:60}")
+    private int graceSeconds;
+
+    private static final int MAX_QUEUED_EVENTS = 32;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public SseEmitter subscribe(Long attemptId, LocalDateTime deadline) {
+        // The stream outlives the deadline so the submitted notice can still be delivered
+        long timeoutMillis = Math.max(0, Duration.between(LocalDateTime.now(), deadline).toMillis())
+                + graceSeconds * 1000L;
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), deadline);
+
+        // Added atomically with the lookup, so a concurrent remove cannot drop the list in between
+        subscribers.compute(attemptId, (id, attemptSubscribers) -> {
+            List<Subscriber> list = attemptSubscribers != null ? attemptSubscribers : new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            return list;
+        });
+        subscriber.emitter.onCompletion(() -> remove(attemptId, subscriber));
+        subscriber.emitter.onTimeout(() -> remove(attemptId, subscriber));
+        subscriber.emitter.onError(e -> remove(attemptId, subscriber));
+
+        sendTime(attemptId, subscriber, LocalDateTime.now());
+        return subscriber.emitter;
+    }
+
+    /**
+     * Sends the ack to the attempt's clients once the current transaction, if
+     * any, has committed.
+     */
+    public void sendSaveAck(SaveAckDTO ack) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishSaveAck(ack);
+                }
+            });
+        } else {
+            publishSaveAck(ack);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void publishSaveAck(SaveAckDTO ack) {
+        List<Subscriber> attemptSubscribers = subscribers.get(ack.getAttemptId());
+        if (attemptSubscribers != null) {
+            attemptSubscribers.forEach(subscriber -> send(ack.getAttemptId(), subscriber, "save-ack", ack, false));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptSubmitted(AttemptSubmittedEvent event) {
+        sendSubmitted(new AttemptSubmittedNoticeDTO(event.getAttemptId(), event.isAutoSubmitted()));
+    }
+
+    /**
+     * Sends the submitted notice to the attempt's clients and closes their
+     * streams. Subscribers are removed as they are notified, so a client is told
+     * once even when the notice is sent again for a late subscription.
+     */
+    public void sendSubmitted(AttemptSubmittedNoticeDTO notice) {
+        List<Subscriber> attemptSubscribers = subscribers.remove(notice.getAttemptId());
+        if (attemptSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : attemptSubscribers) {
+            send(notice.getAttemptId(), subscriber, "submitted", notice, true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${exam.push.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        subscribers.forEach((attemptId, attemptSubscribers) -> {
+            for (Subscriber subscriber : attemptSubscribers) {
+                if (!subscriber.expiredSent && !now.isBefore(subscriber.deadline)) {
+                    // Told at once; the submitted notice follows when the attempt is auto-submitted
+                    subscriber.expiredSent = true;
+                    send(attemptId, subscriber, "expired",
+                            new AttemptTimeDTO(attemptId, subscriber.deadline.format(FORMATTER), 0), false);
+                } else if (!subscriber.expiredSent
+                        && Duration.between(subscriber.lastTimeSent, now).getSeconds() >= timeSyncSeconds) {
+                    sendTime(attemptId, subscriber, now);
+                }
+            }
+        });
+    }
+
+    private void sendTime(Long attemptId, Subscriber subscriber, LocalDateTime now) {
+        long millis = Duration.between(now, subscriber.deadline).toMillis();
+        int remainingSeconds = (int) Math.max(0, (millis + 999) / 1000);
+        subscriber.lastTimeSent = now;
+        send(attemptId, subscriber, "time",
+                new AttemptTimeDTO(attemptId, subscriber.deadline.format(FORMATTER), remainingSeconds), false);
+    }
+
+    // Queues the event; the subscriber's sender writes it, completing the stream afterwards if asked
+    private void send(Long attemptId, Subscriber subscriber, String name, Object data, boolean complete) {
+        if (subscriber.queued.incrementAndGet() > MAX_QUEUED_EVENTS) {
+            // The client does not keep up, drop it rather than buffer without bound
+            subscriber.closed = true;
+            remove(attemptId, subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.outbox.add(new OutgoingEvent(name, data, complete));
+        if (subscriber.sending.compareAndSet(false, true)) {
+            sender.execute(() -> drain(attemptId, subscriber));
+        }
+    }
+
+    private void drain(Long attemptId, Subscriber subscriber) {
+        do {
+            OutgoingEvent event;
+            while ((event = subscriber.outbox.poll()) != null) {
+                subscriber.queued.decrementAndGet();
+                if (subscriber.closed) {
+                    continue;
+                }
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name(event.name).data(event.data));
+                    if (event.complete) {
+                        subscriber.closed = true;
+                        subscriber.emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away
+                    subscriber.closed = true;
+                    remove(attemptId, subscriber);
+                }
+            }
+            subscriber.sending.set(false);
+            // An event queued after the last poll but before the flag was cleared is sent by this thread
+        } while (!subscriber.outbox.isEmpty() && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void remove(Long attemptId, Subscriber subscriber) {
+        subscribers.computeIfPresent(attemptId, (id, attemptSubscribers) -> {
+            attemptSubscribers.remove(subscriber);
+            return attemptSubscribers.isEmpty() ? null : attemptSubscribers;
+        });
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final LocalDateTime deadline;
+        private final Queue<OutgoingEvent> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean(); // A sender is draining the outbox
+        private volatile LocalDateTime lastTimeSent;
+        private volatile boolean expiredSent;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, LocalDateTime deadline) {
+            this.emitter = emitter;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class OutgoingEvent {
+        private final String name;
+        private final Object data;
+        private final boolean complete;
+
+        private OutgoingEvent(String name, Object data, boolean complete) {
+            this.name = name;
+            this.data = data;
+            this.complete = complete;
+        }
+    }
+}
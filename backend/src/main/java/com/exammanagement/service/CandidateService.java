@@ -1,11 +1,14 @@
 package com.exammanagement.service;
 
 import com.exammanagement.dto.CandidateDTO;
+import com.exammanagement.event.CandidateChangedEvent;
+import com.exammanagement.event.ChangeType;
 import com.exammanagement.model.Candidate;
 import com.exammanagement.model.Exam;
 import com.exammanagement.repository.CandidateRepository;
 import com.exammanagement.repository.ExamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -28,6 +31,9 @@ public class CandidateService {
     @Autowired
     private ExamRepository examRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public CandidateDTO createCandidate(CandidateDTO candidateDTO) {
@@ -51,6 +57,7 @@ public class CandidateService {
         candidate.setUpdatedAt(LocalDateTime.now());
 
         Candidate saved = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new CandidateChangedEvent(saved.getId(), ChangeType.CREATED));
         return convertToDTO(saved);
     }
 
@@ -123,6 +130,7 @@ public class CandidateService {
         candidate.setUpdatedAt(LocalDateTime.now());
 
         Candidate updated = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new CandidateChangedEvent(updated.getId(), ChangeType.UPDATED));
         return convertToDTO(updated);
     }
 
@@ -143,6 +151,7 @@ public class CandidateService {
             throw new RuntimeException("Candidate not found");
         }
         candidateRepository.deleteById(id);
+        eventPublisher.publishEvent(new CandidateChangedEvent(id, ChangeType.DELETED));
     }
 
     public CandidateDTO assignCandidateToExams(Long candidateId, List<Long> examIds) {
@@ -156,6 +165,7 @@ public class CandidateService {
 
         candidate.getExams().addAll(exams);
         Candidate updated = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new CandidateChangedEvent(updated.getId(), ChangeType.UPDATED));
         return convertToDTO(updated);
     }
 
@@ -0,0 +1,120 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.DashboardDTO;
+import com.exammanagement.event.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches one dashboard {@link Snapshot} per examiner, with a strong ETag over its
+ * JSON form. The dashboard mixes global totals with per-examiner figures, so
+ * every committed change to exams, questions, candidates, attempts or results
+ * drops all snapshots; the next request rebuilds its own.
+ */
+@Component
+public class DashboardCache {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, a build that overlaps one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public Snapshot getSnapshot(String username) {
+        Snapshot snapshot = snapshots.get(username);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        long buildGeneration = generation.get();
+        DashboardDTO dashboard = dashboardService.getDashboard(username);
+        snapshot = new Snapshot(dashboard, computeETag(dashboard));
+        snapshots.put(username, snapshot);
+        if (generation.get() != buildGeneration) {
+            snapshots.remove(username, snapshot);
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExamChanged(ExamChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCandidateChanged(CandidateChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptStarted(AttemptStartedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptSubmitted(AttemptSubmittedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultScored(ResultScoredEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatisticsFlushed(ExamStatisticsFlushedEvent event) {
+        invalidate(); // Exam counters are written after the changes that invalidated above
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    private String computeETag(DashboardDTO dashboard) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(dashboard));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute dashboard ETag", e);
+        }
+    }
+
+    public static final class Snapshot {
+        private final DashboardDTO dashboard;
+        private final String eTag;
+
+        private Snapshot(DashboardDTO dashboard, String eTag) {
+            this.dashboard = dashboard;
+            this.eTag = eTag;
+        }
+
+        public DashboardDTO getDashboard() {
+            return dashboard;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
@@ -1,122 +1,106 @@
 package com.exammanagement.service;
 
 import com.exammanagement.dto.*;
-import com.exammanagement.model.*;
-import com.exammanagement.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Builds the examiner dashboard from three queries whatever the number of exams,
+ * attempts and results: one row of totals, one row per exam joined with its
+ * maintained statistics and invitation count, and the ten most recent results
+ * selected and ordered by the database.
+ */
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class DashboardService {
 
     @Autowired
-    private ExamRepository examRepository;
-
-    @Autowired
-    private CandidateRepository candidateRepository;
-
-    @Autowired
-    private ExamAttemptRepository examAttemptRepository;
-
-    @Autowired
-    private ResultRepository resultRepository;
-
-    @Autowired
-    private QuestionRepository questionRepository;
-
-    @Autowired
-    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int RECENT_RESULTS = 10;
+
+    private static final String SELECT_TOTALS =
+            "SELECT u.id, " +
+            "(SELECT COUNT(*) FROM candidates), " +
+            "(SELECT COUNT(*) FROM questions q WHERE q.created_by_id = u.id), " +
+            "(SELECT COUNT(*) FROM exam_attempts), " +
+            "(SELECT COUNT(*) FROM exam_attempts WHERE is_submitted = TRUE) " +
+            "FROM users u WHERE u.username = ?";
+
+    private static final String SELECT_EXAM_SUMMARIES =
+            "SELECT e.id, e.name, e.access_code, e.total_questions, e.duration_minutes, " +
+            "s.attempt_count, s.submitted_count, s.graded_count, s.score_sum, " +
+            "(SELECT COUNT(*) FROM exam_candidates ec WHERE ec.exam_id = e.id), e.is_active, e.created_at " +
+            "FROM exams e LEFT JOIN exam_statistics s ON s.exam_id = e.id " +
+            "WHERE e.created_by_id = ? ORDER BY e.id";
+
+    private static final String SELECT_RECENT_RESULTS =
+            "SELECT r.id, e.name, c.name, c.email, r.total_questions, r.correct_answers, r.wrong_answers, " +
+            "r.percentage, r.evaluated_at " +
+            "FROM results r " +
+            "JOIN exams e ON e.id = r.exam_id " +
+            "JOIN exam_attempts a ON a.id = r.exam_attempt_id " +
+            "JOIN candidates c ON c.id = a.candidate_id " +
+            "WHERE e.created_by_id = ? ORDER BY r.evaluated_at DESC, r.id DESC LIMIT ?";
 
     public DashboardDTO getDashboard(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         DashboardDTO dashboard = new DashboardDTO();
 
-        // Get all exams created by this user
-        List<Exam> exams = examRepository.findByCreatedBy(user);
-        dashboard.setTotalExams(exams.size());
-
-        // Get total candidates
-        long totalCandidates = candidateRepository.count();
-        dashboard.setTotalCandidates((int) totalCandidates);
-
-        // Get total questions created by this user
-        long totalQuestions = questionRepository.findByCreatedByUsername(username).size();
-        dashboard.setTotalQuestions((int) totalQuestions);
+        // Totals, and the user's id for the other two queries
+        List<Long> userIds = jdbcTemplate.query(SELECT_TOTALS, (rs, rowNum) -> {
+            dashboard.setTotalCandidates(rs.getInt(2));
+            dashboard.setTotalQuestions(rs.getInt(3));
+            dashboard.setTotalAttempts(rs.getInt(4));
+            dashboard.setSubmittedAttempts(rs.getInt(5));
+            return rs.getLong(1);
+        }, username);
+        if (userIds.isEmpty()) {
+            throw new RuntimeException("User not found");
+        }
+        Long userId = userIds.get(0);
 
-        // Get exam statistics
+        // Exams created by this user with their statistics
         List<ExamSummaryDTO> examSummaries = new ArrayList<>();
-        for (Exam exam : exams) {
+        jdbcTemplate.query(SELECT_EXAM_SUMMARIES, (RowCallbackHandler) rs -> {
             ExamSummaryDTO summary = new ExamSummaryDTO();
-            summary.setExamId(exam.getId());
-            summary.setExamName(exam.getName());
-            summary.setAccessCode(exam.getAccessCode());
-            summary.setTotalQuestions(exam.getTotalQuestions());
-            summary.setDurationMinutes(exam.getDurationMinutes());
-
-            List<ExamAttempt> attempts = examAttemptRepository.findByExam(exam);
-            summary.setTotalAttempts(attempts.size());
-            summary.setSubmittedAttempts((int) attempts.stream()
-                    .filter(ExamAttempt::getIsSubmitted)
-                    .count());
-
-            List<Result> results = resultRepository.findByExamAttempt_Exam(exam);
-            if (!results.isEmpty()) {
-                double avgPercentage = results.stream()
-                        .mapToDouble(Result::getPercentage)
-                        .average()
-                        .orElse(0.0);
-                summary.setAverageScore(Math.round(avgPercentage * 100.0) / 100.0);
-            }
-
-            summary.setTotalCandidates(exam.getCandidates().size());
-            summary.setIsActive(exam.getIsActive());
-
-            if (exam.getCreatedAt() != null) {
-                summary.setCreatedAt(exam.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            }
-
+            summary.setExamId(rs.getLong(1));
+            summary.setExamName(rs.getString(2));
+            summary.setAccessCode(rs.getString(3));
+            summary.setTotalQuestions((Integer) rs.getObject(4));
+            summary.setDurationMinutes((Integer) rs.getObject(5));
+            summary.setTotalAttempts(rs.getInt(6));
+            summary.setSubmittedAttempts(rs.getInt(7));
+            long gradedCount = rs.getLong(8);
+            summary.setAverageScore(gradedCount > 0
+                    ? Math.round(rs.getDouble(9) / gradedCount * 100.0) / 100.0 : null);
+            summary.setTotalCandidates(rs.getInt(10));
+            summary.setIsActive((Boolean) rs.getObject(11));
+            summary.setCreatedAt(format(rs.getTimestamp(12)));
             examSummaries.add(summary);
-        }
-
+        }, userId);
+        dashboard.setTotalExams(examSummaries.size());
         dashboard.setExams(examSummaries);
 
-        // Get participation statistics
-        long totalAttempts = examAttemptRepository.count();
-        long submittedAttempts = examAttemptRepository.findByIsSubmitted(true).size();
-        dashboard.setTotalAttempts((int) totalAttempts);
-        dashboard.setSubmittedAttempts((int) submittedAttempts);
-
-        // Get recent results
-        List<ResultSummaryDTO> recentResults = new ArrayList<>();
-        List<Result> allResults = resultRepository.findAll();
-        allResults.sort((r1, r2) -> r2.getEvaluatedAt().compareTo(r1.getEvaluatedAt()));
-        
-        for (Result result : allResults.stream().limit(10).collect(Collectors.toList())) {
-            if (exams.contains(result.getExamAttempt().getExam())) {
-                ResultSummaryDTO resultSummary = new ResultSummaryDTO();
-                resultSummary.setResultId(result.getId());
-                resultSummary.setExamName(result.getExamAttempt().getExam().getName());
-                resultSummary.setCandidateName(result.getExamAttempt().getCandidate().getName());
-                resultSummary.setCandidateEmail(result.getExamAttempt().getCandidate().getEmail());
-                resultSummary.setTotalQuestions(result.getTotalQuestions());
-                resultSummary.setCorrectAnswers(result.getCorrectAnswers());
-                resultSummary.setWrongAnswers(result.getWrongAnswers());
-                resultSummary.setPercentage(result.getPercentage());
-                resultSummary.setEvaluatedAt(result.getEvaluatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                recentResults.add(resultSummary);
-            }
-        }
-
+        // Most recent results of this user's exams
+        List<ResultSummaryDTO> recentResults = jdbcTemplate.query(SELECT_RECENT_RESULTS, (rs, rowNum) ->
+                new ResultSummaryDTO(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getInt(5), rs.getInt(6), rs.getInt(7), rs.getDouble(8), format(rs.getTimestamp(9))),
+                userId, RECENT_RESULTS);
         dashboard.setRecentResults(recentResults);
 
         return dashboard;
     }
+
+    private static String format(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime().format(FORMATTER);
+    }
 }
@@ -1,15 +1,19 @@
 package com.exammanagement.service;
 
 import com.exammanagement.dto.*;
+import com.exammanagement.event.AttemptStartedEvent;
+import com.exammanagement.event.AttemptSubmittedEvent;
 import com.exammanagement.model.*;
 import com.exammanagement.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +30,22 @@ public class ExamExecutionService {
     private ExamAttemptRepository examAttemptRepository;
 
     @Autowired
-    private ResultService resultService;
+    private AttemptAnswerRepository attemptAnswerRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerWriteBuffer answerWriteBuffer;
+
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    @Autowired
+    private AttemptEventHub attemptEventHub;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -82,29 +101,22 @@ public class ExamExecutionService {
         attempt.setCandidate(candidate);
         attempt.setStartedAt(LocalDateTime.now());
         attempt.setTimeRemainingSeconds(exam.getDurationMinutes() * 60);
+        attempt.setDeadline(attempt.getStartedAt().plusSeconds(attempt.getTimeRemainingSeconds()));
         attempt.setIsSubmitted(false);
         attempt.setIsAutoSubmitted(false);
         attempt.setCreatedAt(LocalDateTime.now());
 
-        // Randomize question order for this attempt
-        List<Question> questions = new ArrayList<>(exam.getQuestions());
-        Collections.shuffle(questions);
-
-        // Create AttemptAnswer entries with randomized order
-        for (int i = 0; i < questions.size(); i++) {
-            Question question = questions.get(i);
-            AttemptAnswer answer = new AttemptAnswer();
-            answer.setExamAttempt(attempt);
-            answer.setQuestion(question);
-            answer.setQuestionOrder(i);
-            answer.setSelectedOptionIndices(new ArrayList<>());
-            attempt.getAnswers().add(answer);
-        }
+        // Randomize question order for this attempt and keep it, so later edits of the exam do not
+        // reorder it. Answer rows are only created once a question is answered
+        attempt.setShuffleSeed(ThreadLocalRandom.current().nextLong());
+        attempt.setQuestionIds(examPaperCache.getPaper(exam.getId()).questionOrder(attempt.getShuffleSeed()));
 
         ExamAttempt savedAttempt = examAttemptRepository.save(attempt);
+        eventPublisher.publishEvent(new AttemptStartedEvent(savedAttempt.getId(), exam.getId(), savedAttempt.getDeadline()));
         return convertAttemptToDTO(savedAttempt, true);
     }
 
+    @Transactional(readOnly = true)
     public ExamAttemptDTO getExamAttempt(Long attemptId, boolean includeCorrectAnswers) {
         ExamAttempt attempt = examAttemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Exam attempt not found"));
@@ -113,21 +125,12 @@ public class ExamExecutionService {
             throw new RuntimeException("Exam has already been submitted");
         }
 
-        // Check if time has expired
-        LocalDateTime now = LocalDateTime.now();
-        int elapsedSeconds = (int) java.time.Duration.between(attempt.getStartedAt(), now).getSeconds();
-        int remainingSeconds = attempt.getTimeRemainingSeconds() - elapsedSeconds;
-
-        if (remainingSeconds <= 0) {
-            // Auto-submit exam
-            submitExamAuto(attempt);
+        // Check if time has expired, the deadline scheduler submits the attempt
+        if (remainingSeconds(attempt) <= 0) {
             throw new RuntimeException("Exam time has expired");
         }
 
-        attempt.setTimeRemainingSeconds(remainingSeconds);
-        ExamAttempt updatedAttempt = examAttemptRepository.save(attempt);
-
-        return convertAttemptToDTO(updatedAttempt, includeCorrectAnswers);
+        return convertAttemptToDTO(attempt, includeCorrectAnswers);
     }
 
     public ExamAttemptDTO saveAnswers(Long attemptId, List<AnswerSubmissionDTO> answers) {
@@ -138,33 +141,76 @@ public class ExamExecutionService {
             throw new RuntimeException("Exam has already been submitted");
         }
 
-        // Check if time has expired
-        LocalDateTime now = LocalDateTime.now();
-        int elapsedSeconds = (int) java.time.Duration.between(attempt.getStartedAt(), now).getSeconds();
-        int remainingSeconds = attempt.getTimeRemainingSeconds() - elapsedSeconds;
+        // Check if time has expired, the deadline scheduler submits the attempt with its buffered answers
+        if (remainingSeconds(attempt) <= 0) {
+            throw new RuntimeException("Exam time has expired");
+        }
 
+        // Buffer answers, they are written to the database in batches
+        Map<Long, Integer> positions = questionPositions(attempt);
+        answerWriteBuffer.stage(attemptId, null, attempt.getLastSaveSequence(),
+                toSelectionMap(answers, positions), positions);
+
+        return convertAttemptToDTO(attempt, true);
+    }
+
+    public SaveAckDTO saveAnswerPatch(Long attemptId, AnswerPatchDTO patch) {
+        ExamAttempt attempt = examAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new RuntimeException("Exam attempt not found"));
+
+        if (attempt.getIsSubmitted()) {
+            throw new RuntimeException("Exam has already been submitted");
+        }
+
+        int remainingSeconds = remainingSeconds(attempt);
         if (remainingSeconds <= 0) {
-            submitExamAuto(attempt);
             throw new RuntimeException("Exam time has expired");
         }
 
-        // Update answers
-        Map<Long, AnswerSubmissionDTO> answerMap = answers.stream()
-                .collect(Collectors.toMap(AnswerSubmissionDTO::getQuestionId, a -> a));
+        // Buffer only the answers that changed; patches older than one already applied are ignored
+        Map<Long, Integer> positions = questionPositions(attempt);
+        Map<Long, OptionSet> selections = toSelectionMap(patch.getAnswers(), positions);
+        boolean applied = answerWriteBuffer.stage(attemptId, patch.getSequence(), attempt.getLastSaveSequence(),
+                selections, positions);
 
-        for (AttemptAnswer attemptAnswer : attempt.getAnswers()) {
-            AnswerSubmissionDTO submission = answerMap.get(attemptAnswer.getQuestion().getId());
-            if (submission != null) {
-                attemptAnswer.setSelectedOptionIndices(submission.getSelectedOptionIndices());
-            }
+        SaveAckDTO ack = new SaveAckDTO(attemptId, patch.getSequence(), applied,
+                applied ? selections.size() : 0, remainingSeconds);
+        attemptEventHub.sendSaveAck(ack);
+        return ack;
+    }
+
+    /**
+     * Returns the deadline of an attempt that is still running, for clients
+     * subscribing to its event stream.
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getOpenAttemptDeadline(Long attemptId) {
+        ExamAttempt attempt = examAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new RuntimeException("Exam attempt not found"));
+
+        if (attempt.getIsSubmitted()) {
+            throw new RuntimeException("Exam has already been submitted");
         }
+        return attempt.getDeadline();
+    }
 
-        attempt.setTimeRemainingSeconds(remainingSeconds);
-        ExamAttempt savedAttempt = examAttemptRepository.save(attempt);
-        return convertAttemptToDTO(savedAttempt, true);
+    /**
+     * Returns the submitted notice of an attempt that has been submitted, empty
+     * while it is still running.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AttemptSubmittedNoticeDTO> getSubmittedNotice(Long attemptId) {
+        return examAttemptRepository.findById(attemptId)
+                .filter(ExamAttempt::getIsSubmitted)
+                .map(attempt -> new AttemptSubmittedNoticeDTO(attempt.getId(), attempt.getIsAutoSubmitted()));
     }
 
-    public ResultDTO submitExam(Long attemptId, SubmitExamDTO submitExamDTO) {
+    /**
+     * Persists the final answers and marks the attempt submitted. Grading happens
+     * asynchronously in the {@link GradingQueue}; the returned receipt points to
+     * the result.
+     */
+    public SubmissionReceiptDTO submitExam(Long attemptId, SubmitExamDTO submitExamDTO) {
         ExamAttempt attempt = examAttemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Exam attempt not found"));
 
@@ -172,17 +218,14 @@ public class ExamExecutionService {
             throw new RuntimeException("Exam has already been submitted");
         }
 
+        // Take over answers still waiting in the write-behind buffer, they are put back if the submit rolls back
+        Map<Long, OptionSet> buffered = answerWriteBuffer.drain(attemptId);
+
         // Save final answers
+        Map<Long, Integer> positions = questionPositions(attempt);
+        applySelections(attempt, buffered, positions);
         if (submitExamDTO.getAnswers() != null) {
-            Map<Long, AnswerSubmissionDTO> answerMap = submitExamDTO.getAnswers().stream()
-                    .collect(Collectors.toMap(AnswerSubmissionDTO::getQuestionId, a -> a));
-
-            for (AttemptAnswer attemptAnswer : attempt.getAnswers()) {
-                AnswerSubmissionDTO submission = answerMap.get(attemptAnswer.getQuestion().getId());
-                if (submission != null) {
-                    attemptAnswer.setSelectedOptionIndices(submission.getSelectedOptionIndices());
-                }
-            }
+            applySelections(attempt, toSelectionMap(submitExamDTO.getAnswers(), positions), positions);
         }
 
         attempt.setSubmittedAt(LocalDateTime.now());
@@ -190,30 +233,121 @@ public class ExamExecutionService {
         attempt.setIsAutoSubmitted(false);
         ExamAttempt savedAttempt = examAttemptRepository.save(attempt);
 
-        // Evaluate and create result
-        ResultDTO result = resultService.evaluateAndCreateResult(savedAttempt);
-        return result;
+        // Queues the attempt for grading once committed
+        eventPublisher.publishEvent(new AttemptSubmittedEvent(attemptId, attempt.getExam().getId(), false));
+
+        return new SubmissionReceiptDTO(attemptId, savedAttempt.getSubmittedAt().format(FORMATTER), "PENDING",
+                "/api/results/attempt/" + attemptId);
+    }
+
+    /**
+     * Auto-submits an attempt whose time has run out. Returns false when the attempt
+     * is already submitted or still has time left.
+     */
+    public boolean submitExpiredAttempt(Long attemptId) {
+        ExamAttempt attempt = examAttemptRepository.findById(attemptId).orElse(null);
+        if (attempt == null || attempt.getIsSubmitted()) {
+            return false;
+        }
+
+        if (remainingSeconds(attempt) > 0) {
+            return false;
+        }
+
+        submitExamAuto(attempt);
+        return true;
     }
 
     private void submitExamAuto(ExamAttempt attempt) {
+        applySelections(attempt, answerWriteBuffer.drain(attempt.getId()), questionPositions(attempt));
         attempt.setSubmittedAt(LocalDateTime.now());
         attempt.setIsSubmitted(true);
         attempt.setIsAutoSubmitted(true);
         examAttemptRepository.save(attempt);
-        // Auto-evaluate
-        resultService.evaluateAndCreateResult(attempt);
+        // Queues the attempt for grading once committed
+        eventPublisher.publishEvent(new AttemptSubmittedEvent(attempt.getId(), attempt.getExam().getId(), true));
+    }
+
+    private int remainingSeconds(ExamAttempt attempt) {
+        // Rounded up, so an attempt only reports 0 once its deadline has really passed
+        long remainingMillis = java.time.Duration.between(LocalDateTime.now(), attempt.getDeadline()).toMillis();
+        return remainingMillis > 0 ? (int) ((remainingMillis + 999) / 1000) : 0;
+    }
+
+    /**
+     * Returns the position of every question of the attempt, keyed by question id.
+     * Questions removed from the exam since the attempt started are left out.
+     */
+    private Map<Long, Integer> questionPositions(ExamAttempt attempt) {
+        ExamPaper paper = examPaperCache.getPaper(attempt.getExam().getId());
+        List<Long> order = attempt.getShuffleSeed() != null
+                ? questionOrder(attempt, paper)
+                : paper.getQuestionIds();
+
+        Map<Long, Integer> positions = new HashMap<>();
+        for (Long questionId : order) {
+            if (paper.containsQuestion(questionId)) {
+                positions.put(questionId, positions.size());
+            }
+        }
+        return positions;
+    }
+
+    // Stored order, or the one derived from the seed for attempts started before the order was stored
+    private List<Long> questionOrder(ExamAttempt attempt, ExamPaper paper) {
+        return attempt.getQuestionIds() != null
+                ? attempt.getQuestionIds()
+                : paper.questionOrder(attempt.getShuffleSeed());
+    }
+
+    private Map<Long, OptionSet> toSelectionMap(List<AnswerSubmissionDTO> answers, Map<Long, Integer> positions) {
+        Map<Long, OptionSet> selections = new HashMap<>();
+        for (AnswerSubmissionDTO answer : answers) {
+            // Ignore questions that are not part of this exam
+            if (positions.containsKey(answer.getQuestionId())) {
+                selections.put(answer.getQuestionId(), OptionSet.of(answer.getSelectedOptionIndices()));
+            }
+        }
+        return selections;
+    }
+
+    private void applySelections(ExamAttempt attempt, Map<Long, OptionSet> selections, Map<Long, Integer> positions) {
+        if (selections.isEmpty()) {
+            return;
+        }
+
+        Map<Long, OptionSet> remaining = new HashMap<>(selections);
+        for (AttemptAnswer attemptAnswer : attempt.getAnswers()) {
+            OptionSet selected = remaining.remove(attemptAnswer.getQuestion().getId());
+            if (selected != null) {
+                attemptAnswer.setSelectedOptions(selected);
+            }
+        }
+
+        // Create answer rows for questions answered for the first time
+        remaining.forEach((questionId, selected) -> {
+            AttemptAnswer answer = new AttemptAnswer();
+            answer.setExamAttempt(attempt);
+            answer.setQuestion(questionRepository.getReferenceById(questionId));
+            answer.setQuestionOrder(positions.get(questionId));
+            answer.setSelectedOptions(selected);
+            attempt.getAnswers().add(answer);
+        });
     }
 
     private ExamAttemptDTO convertAttemptToDTO(ExamAttempt attempt, boolean includeCorrectAnswers) {
+        ExamPaper paper = examPaperCache.getPaper(attempt.getExam().getId());
+
         ExamAttemptDTO dto = new ExamAttemptDTO();
         dto.setId(attempt.getId());
-        dto.setExamId(attempt.getExam().getId());
-        dto.setExamName(attempt.getExam().getName());
+        dto.setExamId(paper.getExamId());
+        dto.setExamName(paper.getExamName());
         dto.setCandidateId(attempt.getCandidate().getId());
         dto.setCandidateName(attempt.getCandidate().getName());
         dto.setCandidateEmail(attempt.getCandidate().getEmail());
         dto.setStartedAt(attempt.getStartedAt().format(FORMATTER));
-        dto.setTimeRemainingSeconds(attempt.getTimeRemainingSeconds());
+        dto.setDeadline(attempt.getDeadline().format(FORMATTER));
+        dto.setTimeRemainingSeconds(remainingSeconds(attempt));
         dto.setIsSubmitted(attempt.getIsSubmitted());
         dto.setIsAutoSubmitted(attempt.getIsAutoSubmitted());
 
@@ -221,40 +355,49 @@ public class ExamExecutionService {
             dto.setSubmittedAt(attempt.getSubmittedAt().format(FORMATTER));
         }
 
-        // Convert answers
-        List<AttemptAnswerDTO> answerDTOs = attempt.getAnswers().stream()
-                .sorted(Comparator.comparing(AttemptAnswer::getQuestionOrder))
-                .map(answer -> {
-                    AttemptAnswerDTO answerDTO = new AttemptAnswerDTO();
-                    answerDTO.setId(answer.getId());
-                    answerDTO.setQuestionId(answer.getQuestion().getId());
-                    answerDTO.setQuestionText(answer.getQuestion().getQuestionText());
-                    answerDTO.setParagraph(answer.getQuestion().getParagraph());
-                    answerDTO.setImageUrl(answer.getQuestion().getImageUrl());
-                    answerDTO.setQuestionOrder(answer.getQuestionOrder());
-                    answerDTO.setSelectedOptionIndices(new ArrayList<>(answer.getSelectedOptionIndices()));
-
-                    // Convert options
-                    List<QuestionOptionDTO> optionDTOs = answer.getQuestion().getOptions().stream()
-                            .sorted(Comparator.comparing(QuestionOption::getOptionIndex))
-                            .map(option -> {
-                                QuestionOptionDTO optionDTO = new QuestionOptionDTO();
-                                optionDTO.setOptionIndex(option.getOptionIndex());
-                                optionDTO.setOptionText(option.getOptionText());
-                                optionDTO.setOptionImageUrl(option.getOptionImageUrl());
-                                return optionDTO;
-                            })
-                            .collect(Collectors.toList());
-                    answerDTO.setOptions(optionDTOs);
-
-                    // Include correct answers only for examiners
-                    if (includeCorrectAnswers) {
-                        answerDTO.setCorrectAnswerIndices(new ArrayList<>(answer.getQuestion().getCorrectAnswerIndices()));
-                    }
-
-                    return answerDTO;
-                })
-                .collect(Collectors.toList());
+        // Lay this candidate's order and selections over the shared paper,
+        // showing buffered selections that are not yet written
+        Map<Long, OptionSet> buffered = answerWriteBuffer.pendingAnswers(attempt.getId());
+        Map<Long, AttemptAnswer> answered = new HashMap<>();
+        List<Long> order = new ArrayList<>();
+        for (AttemptAnswer answer : attemptAnswerRepository.findByExamAttemptIdOrderByQuestionOrder(attempt.getId())) {
+            answered.put(answer.getQuestion().getId(), answer);
+            order.add(answer.getQuestion().getId());
+        }
+        if (attempt.getShuffleSeed() != null) {
+            order = questionOrder(attempt, paper);
+        }
+
+        List<AttemptAnswerDTO> answerDTOs = new ArrayList<>();
+        for (Long questionId : order) {
+            ExamPaper.PaperQuestion question = paper.getQuestion(questionId);
+            if (question == null) {
+                continue; // Removed from the exam since the attempt started
+            }
+            AttemptAnswer answer = answered.get(question.getQuestionId());
+
+            AttemptAnswerDTO answerDTO = new AttemptAnswerDTO();
+            answerDTO.setId(answer != null ? answer.getId() : null);
+            answerDTO.setQuestionId(question.getQuestionId());
+            answerDTO.setQuestionText(question.getQuestionText());
+            answerDTO.setParagraph(question.getParagraph());
+            answerDTO.setImageUrl(question.getImageUrl());
+            answerDTO.setQuestionOrder(answerDTOs.size());
+            answerDTO.setOptions(question.copyOptions());
+
+            OptionSet selected = buffered.get(question.getQuestionId());
+            if (selected == null) {
+                selected = answer != null ? answer.getSelectedOptions() : OptionSet.EMPTY;
+            }
+            answerDTO.setSelectedOptionIndices(selected.toIndices());
+
+            // Include correct answers only for examiners
+            if (includeCorrectAnswers) {
+                answerDTO.setCorrectAnswerIndices(question.getCorrectOptions().toIndices());
+            }
+
+            answerDTOs.add(answerDTO);
+        }
 
         dto.setAnswers(answerDTOs);
 
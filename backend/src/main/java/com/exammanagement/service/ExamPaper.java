@@ -0,0 +1,106 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.QuestionOptionDTO;
+import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.model.OptionSet;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Immutable view of the question content of one exam, identical for every
+ * candidate, together with its compiled {@link AnswerKey}. Built once by
+ * {@link ExamPaperCache} and shared by all attempts.
+ */
+@Getter
+public class ExamPaper {
+    private final Long examId;
+    private final String examName;
+    private final List<Long> questionIds; // Sorted ascending
+    private final Map<Long, PaperQuestion> questions;
+    private final AnswerKey answerKey;
+
+    public ExamPaper(Long examId, String examName, List<Long> questionIds, Map<Long, PaperQuestion> questions) {
+        this.examId = examId;
+        this.examName = examName;
+        this.questionIds = Collections.unmodifiableList(questionIds);
+        this.questions = Collections.unmodifiableMap(questions);
+        this.answerKey = compileAnswerKey();
+    }
+
+    public PaperQuestion getQuestion(Long questionId) {
+        return questions.get(questionId);
+    }
+
+    public boolean containsQuestion(Long questionId) {
+        return questions.containsKey(questionId);
+    }
+
+    /**
+     * Returns the question ids in the order seen by an attempt with the given
+     * shuffle seed. The same seed always yields the same order.
+     */
+    public List<Long> questionOrder(long seed) {
+        List<Long> order = new ArrayList<>(questionIds);
+        Collections.shuffle(order, new Random(seed));
+        return order;
+    }
+
+    private AnswerKey compileAnswerKey() {
+        long[] ids = new long[questionIds.size()];
+        int[] masks = new int[questionIds.size()];
+        DifficultyLevel[] difficulties = new DifficultyLevel[questionIds.size()];
+        String[] topics = new String[questionIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            PaperQuestion question = questions.get(questionIds.get(i));
+            ids[i] = question.getQuestionId();
+            masks[i] = question.getCorrectOptions().toMask();
+            difficulties[i] = question.getDifficultyLevel();
+            topics[i] = question.getTopic() != null ? question.getTopic() : "";
+        }
+        return new AnswerKey(ids, masks, difficulties, topics);
+    }
+
+    @Getter
+    public static class PaperQuestion {
+        private final Long questionId;
+        private final String questionText;
+        private final String paragraph;
+        private final String imageUrl;
+        @Getter(AccessLevel.NONE)
+        private final List<QuestionOptionDTO> options; // Sorted by option index, never handed out
+        private final OptionSet correctOptions;
+        private final DifficultyLevel difficultyLevel;
+        private final String topic;
+
+        public PaperQuestion(Long questionId, String questionText, String paragraph, String imageUrl,
+                             List<QuestionOptionDTO> options, OptionSet correctOptions,
+                             DifficultyLevel difficultyLevel, String topic) {
+            this.questionId = questionId;
+            this.questionText = questionText;
+            this.paragraph = paragraph;
+            this.imageUrl = imageUrl;
+            this.options = Collections.unmodifiableList(options);
+            this.correctOptions = correctOptions;
+            this.difficultyLevel = difficultyLevel;
+            this.topic = topic;
+        }
+
+        /**
+         * Returns copies of the options, the DTOs are mutable and the paper is shared.
+         */
+        public List<QuestionOptionDTO> copyOptions() {
+            List<QuestionOptionDTO> copies = new ArrayList<>(options.size());
+            for (QuestionOptionDTO option : options) {
+                copies.add(new QuestionOptionDTO(option.getOptionIndex(), option.getOptionText(),
+                        option.getOptionImageUrl()));
+            }
+            return copies;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.QuestionOptionDTO;
+import com.exammanagement.event.ExamChangedEvent;
+import com.exammanagement.event.QuestionChangedEvent;
+import com.exammanagement.model.Exam;
+import com.exammanagement.model.Question;
+import com.exammanagement.model.QuestionOption;
+import com.exammanagement.repository.ExamRepository;
+import com.exammanagement.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches one {@link ExamPaper} per exam. A paper is built with two queries on
+ * first use (concurrent requests for the same exam wait for a single build) and
+ * evicted when the exam or one of its questions changes.
+ */
+@Component
+public class ExamPaperCache {
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, CompletableFuture<ExamPaper>> papers = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction, a build that overlaps an eviction is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public ExamPaper getPaper(Long examId) {
+        CompletableFuture<ExamPaper> paper = papers.get(examId);
+        if (paper == null) {
+            long buildGeneration = generation.get();
+            CompletableFuture<ExamPaper> building = new CompletableFuture<>();
+            paper = papers.putIfAbsent(examId, building);
+            if (paper == null) {
+                paper = building;
+                try {
+                    building.complete(buildPaper(examId));
+                } catch (RuntimeException e) {
+                    papers.remove(examId, building);
+                    building.completeExceptionally(e);
+                    throw e;
+                }
+                if (generation.get() != buildGeneration) {
+                    papers.remove(examId, building);
+                }
+            }
+        }
+
+        try {
+            return paper.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExamChanged(ExamChangedEvent event) {
+        generation.incrementAndGet();
+        papers.remove(event.getExamId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        generation.incrementAndGet();
+        papers.entrySet().removeIf(entry -> !entry.getValue().isDone()
+                || entry.getValue().isCompletedExceptionally()
+                || entry.getValue().join().containsQuestion(event.getQuestionId()));
+    }
+
+    private ExamPaper buildPaper(Long examId) {
+        return transactionTemplate.execute(status -> {
+            Exam exam = examRepository.findById(examId)
+                    .orElseThrow(() -> new RuntimeException("Exam not found"));
+
+            List<Question> questions = questionRepository.findByExamIdWithOptions(examId);
+
+            List<Long> questionIds = new ArrayList<>();
+            Map<Long, ExamPaper.PaperQuestion> paperQuestions = new HashMap<>();
+            for (Question question : questions) {
+                List<QuestionOptionDTO> options = question.getOptions().stream()
+                        .sorted(Comparator.comparing(QuestionOption::getOptionIndex))
+                        .map(option -> new QuestionOptionDTO(option.getOptionIndex(),
+                                option.getOptionText(), option.getOptionImageUrl()))
+                        .toList();
+                questionIds.add(question.getId());
+                paperQuestions.put(question.getId(), new ExamPaper.PaperQuestion(question.getId(),
+                        question.getQuestionText(), question.getParagraph(), question.getImageUrl(),
+                        options, question.getCorrectOptions(), question.getDifficultyLevel(), question.getTopic()));
+            }
+            questionIds.sort(Comparator.naturalOrder());
+
+            return new ExamPaper(exam.getId(), exam.getName(), questionIds, paperQuestions);
+        });
+    }
+}
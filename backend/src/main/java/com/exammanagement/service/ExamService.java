@@ -1,9 +1,12 @@
 package com.exammanagement.service;
 
 import com.exammanagement.dto.ExamDTO;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.ExamChangedEvent;
 import com.exammanagement.model.*;
 import com.exammanagement.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,7 +32,16 @@ public class ExamService {
     private UserRepository userRepository;
 
     @Autowired
-    private ExamAttemptRepository examAttemptRepository;
+    private ExamStatisticsRepository examStatisticsRepository;
+
+    @Autowired
+    private ExamStatisticsService examStatisticsService;
+
+    @Autowired
+    private QuestionSampler questionSampler;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -64,7 +76,9 @@ public class ExamService {
                 examDTO.getEasyQuestions(),
                 examDTO.getMediumQuestions(),
                 examDTO.getHardQuestions(),
-                examDTO.getQuestionIds()
+                examDTO.getQuestionIds(),
+                examDTO.getTopics(),
+                examDTO.getExcludedQuestionIds()
         );
 
         if (selectedQuestions.size() < examDTO.getTotalQuestions()) {
@@ -83,36 +97,29 @@ public class ExamService {
         }
 
         Exam savedExam = examRepository.save(exam);
+        eventPublisher.publishEvent(new ExamChangedEvent(savedExam.getId(), ChangeType.CREATED));
         return convertToDTO(savedExam);
     }
 
-    private List<Question> selectQuestionsByDifficulty(int easy, int medium, int hard, List<Long> specificQuestionIds) {
+    private List<Question> selectQuestionsByDifficulty(int easy, int medium, int hard, List<Long> specificQuestionIds,
+                                                       List<String> topics, List<Long> excludedQuestionIds) {
         List<Question> selectedQuestions = new ArrayList<>();
+        Set<Long> excludedIds = new HashSet<>();
+        if (excludedQuestionIds != null) {
+            excludedIds.addAll(excludedQuestionIds);
+        }
 
         // If specific questions are provided, use them
         if (specificQuestionIds != null && !specificQuestionIds.isEmpty()) {
             List<Question> specificQuestions = questionRepository.findAllById(specificQuestionIds);
             selectedQuestions.addAll(specificQuestions);
+            specificQuestions.forEach(question -> excludedIds.add(question.getId()));
         }
 
-        // Add questions based on difficulty distribution
-        if (easy > 0) {
-            List<Question> easyQuestions = questionRepository.findByDifficultyLevel(DifficultyLevel.EASY);
-            Collections.shuffle(easyQuestions);
-            selectedQuestions.addAll(easyQuestions.stream().limit(easy).collect(Collectors.toList()));
-        }
-
-        if (medium > 0) {
-            List<Question> mediumQuestions = questionRepository.findByDifficultyLevel(DifficultyLevel.MEDIUM);
-            Collections.shuffle(mediumQuestions);
-            selectedQuestions.addAll(mediumQuestions.stream().limit(medium).collect(Collectors.toList()));
-        }
-
-        if (hard > 0) {
-            List<Question> hardQuestions = questionRepository.findByDifficultyLevel(DifficultyLevel.HARD);
-            Collections.shuffle(hardQuestions);
-            selectedQuestions.addAll(hardQuestions.stream().limit(hard).collect(Collectors.toList()));
-        }
+        // Add random questions based on difficulty distribution
+        selectedQuestions.addAll(questionSampler.sample(DifficultyLevel.EASY, easy, topics, excludedIds));
+        selectedQuestions.addAll(questionSampler.sample(DifficultyLevel.MEDIUM, medium, topics, excludedIds));
+        selectedQuestions.addAll(questionSampler.sample(DifficultyLevel.HARD, hard, topics, excludedIds));
 
         return selectedQuestions;
     }
@@ -138,17 +145,13 @@ public class ExamService {
     }
 
     public List<ExamDTO> getAllExams() {
-        return examRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(examRepository.findAll());
     }
 
     public List<ExamDTO> getExamsByCreator(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return examRepository.findByCreatedBy(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(examRepository.findByCreatedBy(user));
     }
 
     public ExamDTO updateExam(Long id, ExamDTO examDTO) {
@@ -167,6 +170,7 @@ public class ExamService {
         }
 
         Exam updatedExam = examRepository.save(exam);
+        eventPublisher.publishEvent(new ExamChangedEvent(id, ChangeType.UPDATED));
         return convertToDTO(updatedExam);
     }
 
@@ -175,6 +179,7 @@ public class ExamService {
             throw new RuntimeException("Exam not found");
         }
         examRepository.deleteById(id);
+        eventPublisher.publishEvent(new ExamChangedEvent(id, ChangeType.DELETED));
     }
 
     public ExamDTO addCandidatesToExam(Long examId, List<Long> candidateIds) {
@@ -188,10 +193,26 @@ public class ExamService {
 
         exam.getCandidates().addAll(candidates);
         Exam updatedExam = examRepository.save(exam);
+        eventPublisher.publishEvent(new ExamChangedEvent(examId, ChangeType.UPDATED));
         return convertToDTO(updatedExam);
     }
 
     private ExamDTO convertToDTO(Exam exam) {
+        ExamStatistics statistics = exam.getId() != null
+                ? examStatisticsRepository.findById(exam.getId()).orElse(null) : null;
+        return convertToDTO(exam, statistics);
+    }
+
+    // Loads the statistics of all exams in one query
+    private List<ExamDTO> convertToDTOs(List<Exam> exams) {
+        Map<Long, ExamStatistics> statistics = examStatisticsService.getStatistics(
+                exams.stream().map(Exam::getId).collect(Collectors.toList()));
+        return exams.stream()
+                .map(exam -> convertToDTO(exam, statistics.get(exam.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private ExamDTO convertToDTO(Exam exam, ExamStatistics statistics) {
         ExamDTO dto = new ExamDTO();
         dto.setId(exam.getId());
         dto.setName(exam.getName());
@@ -229,12 +250,9 @@ public class ExamService {
                 .map(Candidate::getId)
                 .collect(Collectors.toList()));
 
-        // Additional info
-        List<ExamAttempt> attempts = examAttemptRepository.findByExam(exam);
-        dto.setTotalAttempts(attempts.size());
-        dto.setSubmittedAttempts((int) attempts.stream()
-                .filter(ExamAttempt::getIsSubmitted)
-                .count());
+        // Additional info, from the incrementally maintained statistics
+        dto.setTotalAttempts(statistics != null ? statistics.getAttemptCount().intValue() : 0);
+        dto.setSubmittedAttempts(statistics != null ? statistics.getSubmittedCount().intValue() : 0);
 
         return dto;
     }
@@ -0,0 +1,143 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.AdmissionStatsDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission gate for exam starts. At most {@code exam.start.max-concurrent} starts
+ * run at once, further requests wait in a fair FIFO queue of at most
+ * {@code exam.start.max-queue} entries for up to {@code exam.start.max-wait-ms}.
+ * Rejected requests get their queue position and a retry estimate, admitted ones
+ * their position on arrival and how long they waited, so a surge at exam opening
+ * is served in order instead of exhausting the connection pool.
+ */
+@Component
+public class ExamStartGate {
+
+    @Value("${exam.start.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${exam.start.max-queue:1000}")
+    private int maxQueue;
+
+    @Value("${exam.start.max-wait-ms:10000}")
+    private long maxWaitMillis;
+
+    private Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedTimeout = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalServiceNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Runs the task once admitted and returns its result with the queue position
+     * and wait. Throws {@link AdmissionRejectedException} when the queue is full
+     * or the request is not admitted within the maximum wait.
+     */
+    public <T> Admission<T> admit(Supplier<T> task) {
+        int position = waiting.incrementAndGet();
+        if (position > maxQueue) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.incrementAndGet();
+            throw new AdmissionRejectedException("Too many candidates are starting this exam, please retry",
+                    position, retryAfterSeconds(position));
+        }
+        maxQueueDepth.accumulateAndGet(position, Math::max);
+
+        long queuedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to start the exam");
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        long waitNanos = System.nanoTime() - queuedAt;
+        if (!acquired) {
+            rejectedTimeout.incrementAndGet();
+            int remaining = Math.max(1, permits.getQueueLength());
+            throw new AdmissionRejectedException("Timed out waiting to start the exam, please retry",
+                    remaining, retryAfterSeconds(remaining));
+        }
+
+        admitted.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        long startedAt = System.nanoTime();
+        try {
+            return new Admission<>(task.get(), position, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        } finally {
+            totalServiceNanos.addAndGet(System.nanoTime() - startedAt);
+            completed.incrementAndGet();
+            permits.release();
+        }
+    }
+
+    public AdmissionStatsDTO getStats() {
+        long admittedCount = admitted.get();
+        long completedCount = completed.get();
+
+        AdmissionStatsDTO stats = new AdmissionStatsDTO();
+        stats.setMaxConcurrent(maxConcurrent);
+        stats.setMaxQueue(maxQueue);
+        stats.setActive(maxConcurrent - permits.availablePermits());
+        stats.setQueueDepth(waiting.get());
+        stats.setMaxQueueDepth(maxQueueDepth.get());
+        stats.setAdmitted(admittedCount);
+        stats.setRejectedQueueFull(rejectedQueueFull.get());
+        stats.setRejectedTimeout(rejectedTimeout.get());
+        stats.setAverageWaitMillis(admittedCount > 0 ? totalWaitNanos.get() / 1e6 / admittedCount : 0.0);
+        stats.setMaxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        stats.setAverageServiceMillis(completedCount > 0 ? totalServiceNanos.get() / 1e6 / completedCount : 0.0);
+        return stats;
+    }
+
+    // Time for the requests ahead to drain at the observed service rate
+    private int retryAfterSeconds(int position) {
+        long completedCount = completed.get();
+        double serviceMillis = completedCount > 0 ? totalServiceNanos.get() / 1e6 / completedCount : 100.0;
+        double drainMillis = position * serviceMillis / maxConcurrent;
+        return (int) Math.max(1, Math.ceil(drainMillis / 1000));
+    }
+
+    /**
+     * Result of an admitted task with the position it queued at, 1 when it did
+     * not have to wait behind anyone.
+     */
+    @Getter
+    public static final class Admission<T> {
+        private final T value;
+        private final int queuePosition;
+        private final long waitMillis;
+
+        private Admission(T value, int queuePosition, long waitMillis) {
+            this.value = value;
+            this.queuePosition = queuePosition;
+            this.waitMillis = waitMillis;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.ExamStatisticsDTO;
+import com.exammanagement.event.AttemptStartedEvent;
+import com.exammanagement.event.AttemptSubmittedEvent;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.ExamChangedEvent;
+import com.exammanagement.event.ExamStatisticsFlushedEvent;
+import com.exammanagement.event.ResultScoredEvent;
+import com.exammanagement.model.ExamStatistics;
+import com.exammanagement.repository.ExamStatisticsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the per-exam {@link ExamStatistics} record: attempt, submitted and
+ * graded counts, score sum and sum of squares and a score histogram, so summaries
+ * never have to scan attempts or results. Starts, submits and scores are added to
+ * in-memory deltas once their transaction commits and written in one batch every
+ * {@code exam.statistics.flush-interval-ms}, so the hot per-exam row is never
+ * locked by the transactions that start or submit attempts. {@link #reconcile()}
+ * rebuilds all records from the source tables on startup and nightly.
+ */
+@Service
+public class ExamStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamStatisticsService.class);
+
+    @Autowired
+    private ExamStatisticsRepository examStatisticsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+
+    // Held by flushes and reconciliations, so a snapshot never overlaps a delta write
+    private final ReentrantLock applyLock = new ReentrantLock();
+
+    // Shared by transactions from commit until their delta is added, exclusive to reconciliations
+    private final ReentrantReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String INSERT_STATISTICS =
+            "INSERT INTO exam_statistics (exam_id, attempt_count, submitted_count, graded_count, score_sum, " +
+            "score_square_sum, reconciled_at) SELECT ?, 0, 0, 0, 0, 0, ? " +
+            "WHERE EXISTS (SELECT 1 FROM exams WHERE id = ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM exam_statistics WHERE exam_id = ?)";
+
+    private static final String INSERT_BUCKET =
+            "INSERT INTO exam_score_histogram (exam_id, bucket, result_count) SELECT ?, ?, 0 " +
+            "WHERE EXISTS (SELECT 1 FROM exams WHERE id = ?) AND NOT EXISTS (SELECT 1 FROM exam_score_histogram WHERE exam_id = ? AND bucket = ?)";
+
+    private static final String ADD_COUNTERS =
+            "UPDATE exam_statistics SET attempt_count = attempt_count + ?, submitted_count = submitted_count + ?, " +
+            "graded_count = graded_count + ?, score_sum = score_sum + ?, score_square_sum = score_square_sum + ? " +
+            "WHERE exam_id = ?";
+
+    private static final String ADD_TO_BUCKET =
+            "UPDATE exam_score_histogram SET result_count = result_count + ? WHERE exam_id = ? AND bucket = ?";
+
+    private static final String RECOMPUTE_STATISTICS =
+            "UPDATE exam_statistics s SET " +
+            "attempt_count = (SELECT COUNT(*) FROM exam_attempts a WHERE a.exam_id = s.exam_id), " +
+            "submitted_count = (SELECT COUNT(*) FROM exam_attempts a WHERE a.exam_id = s.exam_id AND a.is_submitted = TRUE), " +
+            "graded_count = (SELECT COUNT(*) FROM results r JOIN exam_attempts a ON a.id = r.exam_attempt_id " +
+            "WHERE a.exam_id = s.exam_id), " +
+            "score_sum = (SELECT COALESCE(SUM(r.percentage), 0) FROM results r " +
+            "JOIN exam_attempts a ON a.id = r.exam_attempt_id WHERE a.exam_id = s.exam_id), " +
+            "score_square_sum = (SELECT COALESCE(SUM(r.percentage * r.percentage), 0) FROM results r " +
+            "JOIN exam_attempts a ON a.id = r.exam_attempt_id WHERE a.exam_id = s.exam_id), " +
+            "reconciled_at = ?";
+
+    private static final String SELECT_RESULT_SCORES =
+            "SELECT a.exam_id, r.percentage FROM results r JOIN exam_attempts a ON a.id = r.exam_attempt_id";
+
+    @Transactional
+    @EventListener
+    public void onExamChanged(ExamChangedEvent event) {
+        if (event.getChangeType() == ChangeType.CREATED) {
+            createStatistics(event.getExamId());
+        } else if (event.getChangeType() == ChangeType.DELETED) {
+            jdbcTemplate.update("DELETE FROM exam_score_histogram WHERE exam_id = ?", event.getExamId());
+            jdbcTemplate.update("DELETE FROM exam_statistics WHERE exam_id = ?", event.getExamId());
+        }
+    }
+
+    @EventListener
+    public void onAttemptStarted(AttemptStartedEvent event) {
+        addAfterCommit(event.getExamId(), delta -> delta.attempts++);
+    }
+
+    @EventListener
+    public void onAttemptSubmitted(AttemptSubmittedEvent event) {
+        addAfterCommit(event.getExamId(), delta -> delta.submitted++);
+    }
+
+    /**
+     * Records a new result score (no previous percentage) or a score changed by a
+     * re-grade.
+     */
+    @EventListener
+    public void onResultScored(ResultScoredEvent event) {
+        addAfterCommit(event.getExamId(), delta -> {
+            Double previous = event.getPreviousPercentage();
+            if (previous == null) {
+                delta.graded++;
+            } else {
+                delta.scoreSum -= previous;
+                delta.scoreSquareSum -= previous * previous;
+                delta.buckets[ExamStatistics.bucketOf(previous)]--;
+            }
+            delta.scoreSum += event.getPercentage();
+            delta.scoreSquareSum += event.getPercentage() * event.getPercentage();
+            delta.buckets[ExamStatistics.bucketOf(event.getPercentage())]++;
+        });
+    }
+
+    /**
+     * Adds the change to the pending deltas once the publishing transaction
+     * commits, right away without one. The reconcile lock is shared from before
+     * the commit until the change is added, so a reconciliation either sees
+     * neither the committed rows nor the delta, or clears a delta it already
+     * counted from the rows; it never counts both.
+     */
+    private void addAfterCommit(Long examId, Consumer<Delta> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reconcileLock.readLock().lock();
+            try {
+                add(examId, change);
+            } finally {
+                reconcileLock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                reconcileLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                add(examId, change);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    reconcileLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void add(Long examId, Consumer<Delta> change) {
+        pending.compute(examId, (id, delta) -> {
+            delta = delta != null ? delta : new Delta();
+            change.accept(delta);
+            return delta;
+        });
+    }
+
+    /**
+     * Writes the accumulated deltas, one counter update per exam and one per
+     * changed histogram bucket. Deltas of a failed write are merged back and
+     * retried with the next flush.
+     */
+    @Scheduled(fixedDelayString = "${exam.statistics.flush-interval-ms:1000}")
+    public void flush() {
+        applyLock.lock();
+        try {
+            Map<Long, Delta> batch = new HashMap<>();
+            for (Long examId : new ArrayList<>(pending.keySet())) {
+                Delta delta = pending.remove(examId);
+                if (delta != null) {
+                    batch.put(examId, delta);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                eventPublisher.publishEvent(new ExamStatisticsFlushedEvent(batch.keySet()));
+            } catch (RuntimeException e) {
+                log.warn("Failed to write statistics of {} exams, retrying with the next flush", batch.size(), e);
+                batch.forEach((examId, delta) -> pending.merge(examId, delta, Delta::add));
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, ExamStatistics> getStatistics(Collection<Long> examIds) {
+        Map<Long, ExamStatistics> statistics = new HashMap<>();
+        examStatisticsRepository.findAllById(examIds)
+                .forEach(examStatistics -> statistics.put(examStatistics.getExamId(), examStatistics));
+        return statistics;
+    }
+
+    @Transactional(readOnly = true)
+    public ExamStatisticsDTO getExamStatistics(Long examId) {
+        ExamStatistics statistics = examStatisticsRepository.findById(examId)
+                .orElseThrow(() -> new RuntimeException("Exam statistics not found"));
+
+        ExamStatisticsDTO dto = new ExamStatisticsDTO();
+        dto.setExamId(statistics.getExamId());
+        dto.setAttemptCount(statistics.getAttemptCount());
+        dto.setSubmittedCount(statistics.getSubmittedCount());
+        dto.setGradedCount(statistics.getGradedCount());
+        dto.setAverageScore(averageScore(statistics));
+
+        if (statistics.getGradedCount() > 0) {
+            double mean = statistics.getScoreSum() / statistics.getGradedCount();
+            double variance = Math.max(0.0, statistics.getScoreSquareSum() / statistics.getGradedCount() - mean * mean);
+            dto.setStandardDeviation(Math.round(Math.sqrt(variance) * 100.0) / 100.0);
+        }
+
+        List<Long> histogram = new ArrayList<>();
+        for (int bucket = 0; bucket < ExamStatistics.HISTOGRAM_BUCKETS; bucket++) {
+            histogram.add(statistics.getHistogram().getOrDefault(bucket, 0L));
+        }
+        dto.setHistogram(histogram);
+        dto.setReconciledAt(statistics.getReconciledAt().format(FORMATTER));
+        return dto;
+    }
+
+    /**
+     * Average result percentage rounded to two decimals, null when nothing is graded.
+     */
+    public static Double averageScore(ExamStatistics statistics) {
+        if (statistics == null || statistics.getGradedCount() == 0) {
+            return null;
+        }
+        return Math.round(statistics.getScoreSum() / statistics.getGradedCount() * 100.0) / 100.0;
+    }
+
+    /**
+     * Rebuilds every statistics record from attempts and results. Runs under the
+     * flush lock and the exclusive reconcile lock in one transaction; deltas added
+     * before it started are already part of the source tables and are dropped,
+     * transactions committing meanwhile wait and add theirs afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${exam.statistics.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        reconcileLock.writeLock().lock();
+        applyLock.lock();
+        try {
+            pending.clear();
+            transactionTemplate.executeWithoutResult(status -> recompute());
+        } finally {
+            applyLock.unlock();
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void recompute() {
+        List<Long> examIds = jdbcTemplate.queryForList("SELECT id FROM exams", Long.class);
+        jdbcTemplate.update("DELETE FROM exam_score_histogram WHERE exam_id NOT IN (SELECT id FROM exams)");
+        jdbcTemplate.update("DELETE FROM exam_statistics WHERE exam_id NOT IN (SELECT id FROM exams)");
+        examIds.forEach(this::createStatistics);
+
+        jdbcTemplate.update(RECOMPUTE_STATISTICS, LocalDateTime.now());
+
+        Map<Long, long[]> bucketCounts = new HashMap<>();
+        jdbcTemplate.query(SELECT_RESULT_SCORES, (RowCallbackHandler) rs ->
+                bucketCounts.computeIfAbsent(rs.getLong(1), id -> new long[ExamStatistics.HISTOGRAM_BUCKETS])
+                        [ExamStatistics.bucketOf(rs.getDouble(2))]++);
+
+        List<Object[]> bucketUpdates = new ArrayList<>();
+        for (Long examId : examIds) {
+            long[] counts = bucketCounts.getOrDefault(examId, new long[ExamStatistics.HISTOGRAM_BUCKETS]);
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                bucketUpdates.add(new Object[]{counts[bucket], examId, bucket});
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE exam_score_histogram SET result_count = ? WHERE exam_id = ? AND bucket = ?",
+                bucketUpdates);
+
+        log.info("Reconciled statistics of {} exams", examIds.size());
+    }
+
+    private void write(Map<Long, Delta> batch) {
+        List<Object[]> counterUpdates = new ArrayList<>();
+        List<Object[]> bucketUpdates = new ArrayList<>();
+        batch.forEach((examId, delta) -> {
+            counterUpdates.add(new Object[]{delta.attempts, delta.submitted, delta.graded, delta.scoreSum,
+                    delta.scoreSquareSum, examId});
+            for (int bucket = 0; bucket < delta.buckets.length; bucket++) {
+                if (delta.buckets[bucket] != 0) {
+                    bucketUpdates.add(new Object[]{delta.buckets[bucket], examId, bucket});
+                }
+            }
+        });
+        int[] updated = jdbcTemplate.batchUpdate(ADD_COUNTERS, counterUpdates);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                // No record yet, e.g. an exam created before statistics existed; none for deleted exams
+                createStatistics((Long) counterUpdates.get(i)[5]);
+                jdbcTemplate.update(ADD_COUNTERS, counterUpdates.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(ADD_TO_BUCKET, bucketUpdates);
+    }
+
+    private void createStatistics(Long examId) {
+        jdbcTemplate.update(INSERT_STATISTICS, examId, LocalDateTime.now(), examId, examId);
+        List<Object[]> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < ExamStatistics.HISTOGRAM_BUCKETS; bucket++) {
+            buckets.add(new Object[]{examId, bucket, examId, examId, bucket});
+        }
+        jdbcTemplate.batchUpdate(INSERT_BUCKET, buckets);
+    }
+
+    /**
+     * Counter changes of one exam that are committed but not yet written.
+     */
+    private static final class Delta {
+        private long attempts;
+        private long submitted;
+        private long graded;
+        private double scoreSum;
+        private double scoreSquareSum;
+        private final long[] buckets = new long[ExamStatistics.HISTOGRAM_BUCKETS];
+
+        private Delta add(Delta other) {
+            attempts += other.attempts;
+            submitted += other.submitted;
+            graded += other.graded;
+            scoreSum += other.scoreSum;
+            scoreSquareSum += other.scoreSquareSum;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                buckets[bucket] += other.buckets[bucket];
+            }
+            return this;
+        }
+    }
+}
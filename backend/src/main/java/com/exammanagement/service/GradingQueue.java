@@ -0,0 +1,198 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.GradingStatsDTO;
+import com.exammanagement.event.AttemptSubmittedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grades submitted attempts off the request path. Submitted attempts are queued
+ * once their submit commits; {@code exam.grading.workers} workers take up to
+ * {@code exam.grading.batch-size} attempts at a time and grade them with one
+ * batch insert of results. When a batch fails, its attempts are graded one by one
+ * so a single bad attempt does not hold up the rest; an attempt that fails is
+ * retried with exponential backoff and parked after {@code exam.grading.max-retries}
+ * failures. On startup the queue is refilled with every submitted attempt that
+ * has no result yet, parked ones included, so nothing is lost across restarts.
+ */
+@Component
+public class GradingQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(GradingQueue.class);
+
+    @Autowired
+    private ResultService resultService;
+
+    @Value("${exam.grading.workers:2}")
+    private int workers;
+
+    @Value("${exam.grading.batch-size:100}")
+    private int batchSize;
+
+    @Value("${exam.grading.retry-delay-ms:1000}")
+    private long retryDelayMillis;
+
+    @Value("${exam.grading.max-retries:8}")
+    private int maxRetries;
+
+    private final LinkedBlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+
+    // Queueing time per pending attempt, also used to skip duplicates
+    private final Map<Long, Long> queuedAt = new ConcurrentHashMap<>();
+
+    // Failed grading runs per attempt, and attempts given up on until the next restart
+    private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+    private final Set<Long> parked = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong graded = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong totalLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile LocalDateTime lastBatchAt;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService retryScheduler;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Long> backlog = resultService.findUngradedAttemptIds();
+        backlog.forEach(this::enqueue);
+        log.info("Queued {} submitted attempts for grading", backlog.size());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "grading-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grading-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptSubmitted(AttemptSubmittedEvent event) {
+        enqueue(event.getAttemptId());
+    }
+
+    public GradingStatsDTO getStats() {
+        long gradedCount = graded.get();
+        long now = System.currentTimeMillis();
+        long oldest = queuedAt.values().stream().mapToLong(Long::longValue).min().orElse(now);
+
+        GradingStatsDTO stats = new GradingStatsDTO();
+        stats.setWorkers(workers);
+        stats.setBatchSize(batchSize);
+        stats.setQueueDepth(queuedAt.size());
+        stats.setOldestPendingSeconds(TimeUnit.MILLISECONDS.toSeconds(now - oldest));
+        stats.setGraded(gradedCount);
+        stats.setFailedBatches(failedBatches.get());
+        stats.setParked(parked.size());
+        stats.setAverageLagMillis(gradedCount > 0 ? (double) totalLagMillis.get() / gradedCount : 0.0);
+        stats.setMaxLagMillis(maxLagMillis.get());
+        stats.setLastBatchAt(lastBatchAt != null ? lastBatchAt.format(FORMATTER) : null);
+        return stats;
+    }
+
+    private void enqueue(Long attemptId) {
+        if (queuedAt.putIfAbsent(attemptId, System.currentTimeMillis()) == null) {
+            queue.add(attemptId);
+        }
+    }
+
+    private void work() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    grade(batch);
+                } catch (RuntimeException e) {
+                    failedBatches.incrementAndGet();
+                    log.warn("Grading of {} attempts failed, grading them one by one", batch.size(), e);
+                    batch.forEach(this::gradeAlone);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void gradeAlone(Long attemptId) {
+        try {
+            grade(List.of(attemptId));
+        } catch (RuntimeException e) {
+            int failed = failures.merge(attemptId, 1, Integer::sum);
+            if (failed > maxRetries) {
+                failures.remove(attemptId);
+                queuedAt.remove(attemptId);
+                parked.add(attemptId);
+                log.error("Grading of attempt {} failed {} times, parked until restart", attemptId, failed, e);
+                return;
+            }
+            long delayMillis = retryDelayMillis << Math.min(failed - 1, 10);
+            log.warn("Grading of attempt {} failed, retrying in {} ms", attemptId, delayMillis, e);
+            retryScheduler.schedule(() -> queue.add(attemptId), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void grade(List<Long> batch) {
+        List<Long> gradedIds = resultService.gradeAttempts(batch);
+
+        // Attempts skipped by the grader are already graded or not submitted, either way done
+        long now = System.currentTimeMillis();
+        Set<Long> inserted = new HashSet<>(gradedIds);
+        for (Long attemptId : batch) {
+            failures.remove(attemptId);
+            Long queued = queuedAt.remove(attemptId);
+            if (queued != null && inserted.contains(attemptId)) {
+                long lag = now - queued;
+                totalLagMillis.addAndGet(lag);
+                maxLagMillis.accumulateAndGet(lag, Math::max);
+            }
+        }
+        graded.addAndGet(gradedIds.size());
+        lastBatchAt = LocalDateTime.now();
+    }
+}
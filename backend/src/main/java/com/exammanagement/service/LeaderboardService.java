@@ -0,0 +1,223 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.LeaderboardDTO;
+import com.exammanagement.dto.LeaderboardEntryDTO;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.ExamChangedEvent;
+import com.exammanagement.event.ResultScoredEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps an in-memory ranking of the results of every exam, so rank, percentile
+ * and top-K queries never touch the database. Each ranking counts scores in a
+ * Fenwick tree over hundredths of a percent (rank and percentile in
+ * O(log 10001)) and keeps its entries in a sorted set for top-K. Rankings are
+ * rebuilt from the results table on startup and updated after every committed
+ * grading or re-grading batch.
+ */
+@Component
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final Map<Long, ExamRanking> rankings = new ConcurrentHashMap<>();
+
+    private static final String SELECT_ALL_SCORES =
+            "SELECT exam_id, exam_attempt_id, percentage FROM results WHERE exam_id IS NOT NULL";
+
+    private static final String SELECT_CANDIDATES =
+            "SELECT a.id, c.name FROM exam_attempts a JOIN candidates c ON c.id = a.candidate_id WHERE a.id IN (:ids)";
+
+    // Before the grading queue starts, so no committed result is missed or counted twice
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        rankings.clear();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(SELECT_ALL_SCORES, (RowCallbackHandler) rs ->
+                rankingOf(rs.getLong(1)).add(rs.getLong(2), toHundredths(rs.getDouble(3))));
+        log.info("Rebuilt leaderboards of {} exams in {} ms", rankings.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultScored(ResultScoredEvent event) {
+        ExamRanking ranking = rankingOf(event.getExamId());
+        if (event.getPreviousPercentage() != null) {
+            ranking.remove(event.getAttemptId(), toHundredths(event.getPreviousPercentage()));
+        }
+        ranking.add(event.getAttemptId(), toHundredths(event.getPercentage()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExamChanged(ExamChangedEvent event) {
+        if (event.getChangeType() == ChangeType.DELETED) {
+            rankings.remove(event.getExamId());
+        }
+    }
+
+    /**
+     * Returns the competition rank (ties share a rank) and the percentile rank of
+     * a score among the exam's results, or null when the exam has no results yet.
+     */
+    public Standing getStanding(Long examId, double percentage) {
+        ExamRanking ranking = rankings.get(examId);
+        return ranking == null ? null : ranking.standing(toHundredths(percentage));
+    }
+
+    public LeaderboardDTO getLeaderboard(Long examId, int limit) {
+        ExamRanking ranking = rankings.get(examId);
+        LeaderboardDTO leaderboard = new LeaderboardDTO();
+        leaderboard.setExamId(examId);
+        if (ranking == null) {
+            leaderboard.setTotalResults(0L);
+            leaderboard.setEntries(List.of());
+            return leaderboard;
+        }
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        long total = ranking.top(limit, (attemptId, hundredths, standing) -> {
+            LeaderboardEntryDTO entry = new LeaderboardEntryDTO();
+            entry.setExamAttemptId(attemptId);
+            entry.setPercentage(hundredths / 100.0);
+            entry.setRank(standing.getRank());
+            entry.setPercentile(standing.getPercentile());
+            entries.add(entry);
+        });
+
+        if (!entries.isEmpty()) {
+            Map<Long, String> names = new HashMap<>();
+            namedParameterJdbcTemplate.query(SELECT_CANDIDATES,
+                    Map.of("ids", entries.stream().map(LeaderboardEntryDTO::getExamAttemptId).toList()),
+                    (RowCallbackHandler) rs -> names.put(rs.getLong(1), rs.getString(2)));
+            entries.forEach(entry -> entry.setCandidateName(names.get(entry.getExamAttemptId())));
+        }
+        leaderboard.setTotalResults(total);
+        leaderboard.setEntries(entries);
+        return leaderboard;
+    }
+
+    private ExamRanking rankingOf(Long examId) {
+        return rankings.computeIfAbsent(examId, id -> new ExamRanking());
+    }
+
+    private static int toHundredths(double percentage) {
+        return (int) Math.max(0, Math.min(ExamRanking.MAX_SCORE, Math.round(percentage * 100.0)));
+    }
+
+    public static final class Standing {
+        private final long rank;
+        private final double percentile;
+        private final long total;
+
+        private Standing(long rank, double percentile, long total) {
+            this.rank = rank;
+            this.percentile = percentile;
+            this.total = total;
+        }
+
+        public long getRank() {
+            return rank;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    private interface EntryVisitor {
+        void visit(long attemptId, int hundredths, Standing standing);
+    }
+
+    /**
+     * Results of one exam. {@code tree} is a Fenwick tree of result counts per
+     * score in hundredths of a percent; {@code entries} holds one packed key per
+     * result, ordered best score first and then by attempt id, which also makes
+     * adding or removing the same result twice harmless.
+     */
+    static final class ExamRanking {
+        static final int MAX_SCORE = 10000; // 100.00%
+        private static final int ATTEMPT_BITS = 48;
+
+        private final int[] tree = new int[MAX_SCORE + 2];
+        private final TreeSet<Long> entries = new TreeSet<>();
+
+        synchronized void add(long attemptId, int hundredths) {
+            if (entries.add(pack(attemptId, hundredths))) {
+                update(hundredths, 1);
+            }
+        }
+
+        synchronized void remove(long attemptId, int hundredths) {
+            if (entries.remove(pack(attemptId, hundredths))) {
+                update(hundredths, -1);
+            }
+        }
+
+        synchronized Standing standing(int hundredths) {
+            long total = entries.size();
+            if (total == 0) {
+                return null;
+            }
+            long atOrBelow = prefix(hundredths);
+            long below = hundredths == 0 ? 0 : prefix(hundredths - 1);
+            double percentile = (below + (atOrBelow - below) / 2.0) * 100.0 / total;
+            return new Standing(total - atOrBelow + 1, Math.round(percentile * 100.0) / 100.0, total);
+        }
+
+        /**
+         * Visits the best {@code limit} results in rank order and returns the
+         * number of results.
+         */
+        synchronized long top(int limit, EntryVisitor visitor) {
+            int visited = 0;
+            for (long key : entries) {
+                if (visited++ == limit) {
+                    break;
+                }
+                int hundredths = MAX_SCORE - (int) (key >>> ATTEMPT_BITS);
+                visitor.visit(key & ((1L << ATTEMPT_BITS) - 1), hundredths, standing(hundredths));
+            }
+            return entries.size();
+        }
+
+        private static long pack(long attemptId, int hundredths) {
+            return ((long) (MAX_SCORE - hundredths) << ATTEMPT_BITS) | attemptId;
+        }
+
+        private void update(int hundredths, int delta) {
+            for (int i = hundredths + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        // Number of results scoring at most the given hundredths
+        private long prefix(int hundredths) {
+            long count = 0;
+            for (int i = hundredths + 1; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.QuestionAnalysisDTO;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.ExamChangedEvent;
+import com.exammanagement.event.QuestionChangedEvent;
+import com.exammanagement.model.OptionSet;
+import com.exammanagement.model.QuestionAnalysis;
+import com.exammanagement.repository.QuestionAnalysisRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Computes per-question item statistics (proportion correct, corrected
+ * point-biserial discrimination and how often each option was chosen) and stores
+ * them in the {@code question_analysis} table. One analysis streams every
+ * (graded attempt, question) pair of its scope once through a forward-only cursor
+ * and accumulates into primitive arrays indexed by question, so memory does not
+ * grow with the number of attempts.
+ */
+@Service
+@Transactional
+public class QuestionAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionAnalysisService.class);
+
+    @Autowired
+    private QuestionAnalysisRepository questionAnalysisRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${exam.analysis.fetch-size:1000}")
+    private int fetchSize;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Correct options and option count of the questions in scope, ordered by id for the AnswerKey
+    private static final String SELECT_EXAM_KEY =
+            "SELECT q.id, q.correct_options, (SELECT COUNT(*) FROM question_options o WHERE o.question_id = q.id) " +
+            "FROM questions q JOIN exam_questions eq ON eq.question_id = q.id WHERE eq.exam_id = ? ORDER BY q.id";
+
+    private static final String SELECT_BANK_KEY =
+            "SELECT q.id, q.correct_options, (SELECT COUNT(*) FROM question_options o WHERE o.question_id = q.id) " +
+            "FROM questions q WHERE (CAST(? AS BIGINT) IS NULL OR q.id = ?) ORDER BY q.id";
+
+    // One row per graded attempt and question of its exam; unanswered questions have no answer row
+    private static final String SELECT_RESPONSES =
+            "SELECT eq.question_id, COALESCE(aa.selected_options, 0), r.correct_answers " +
+            "FROM results r " +
+            "JOIN exam_attempts ea ON ea.id = r.exam_attempt_id " +
+            "JOIN exam_questions eq ON eq.exam_id = ea.exam_id " +
+            "LEFT JOIN attempt_answers aa ON aa.exam_attempt_id = r.exam_attempt_id AND aa.question_id = eq.question_id ";
+
+    private static final String SELECT_EXAM_RESPONSES = SELECT_RESPONSES + "WHERE ea.exam_id = ?";
+
+    private static final String SELECT_BANK_RESPONSES = SELECT_RESPONSES + "WHERE (CAST(? AS BIGINT) IS NULL OR eq.question_id = ?)";
+
+    /**
+     * Analyses every question of the exam over the exam's graded attempts and
+     * replaces the stored analysis of the exam.
+     */
+    public List<QuestionAnalysisDTO> analyzeExam(Long examId) {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exams WHERE id = ?", Integer.class, examId) == 0) {
+            throw new RuntimeException("Exam not found");
+        }
+        ItemStatistics statistics = loadKey(SELECT_EXAM_KEY, examId);
+        stream(SELECT_EXAM_RESPONSES, statistics, examId);
+
+        questionAnalysisRepository.deleteByExamId(examId);
+        return save(statistics, examId);
+    }
+
+    /**
+     * Analyses one question, or the whole question bank when {@code questionId} is
+     * null, over the graded attempts of every exam that contains it and replaces
+     * the stored cross-exam analysis.
+     */
+    public List<QuestionAnalysisDTO> analyzeAcrossExams(Long questionId) {
+        ItemStatistics statistics = loadKey(SELECT_BANK_KEY, questionId, questionId);
+        if (questionId != null && statistics.key.questionCount() == 0) {
+            throw new RuntimeException("Question not found");
+        }
+        stream(SELECT_BANK_RESPONSES, statistics, questionId, questionId);
+
+        questionAnalysisRepository.deleteAcrossExams(questionId);
+        return save(statistics, null);
+    }
+
+    public List<QuestionAnalysisDTO> getExamAnalysis(Long examId) {
+        return questionAnalysisRepository.findByExamIdOrderByQuestionId(examId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<QuestionAnalysisDTO> getQuestionAnalysis(Long questionId) {
+        return questionAnalysisRepository.findByQuestionIdOrderByExamId(questionId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stored cross-exam analysis of every analysed question, keyed by question id,
+     * for the question list.
+     */
+    public Map<Long, QuestionAnalysisDTO> getAnalysesAcrossExams() {
+        Map<Long, QuestionAnalysisDTO> analyses = new HashMap<>();
+        for (QuestionAnalysis analysis : questionAnalysisRepository.findByExamIdIsNull()) {
+            analyses.put(analysis.getQuestionId(), convertToDTO(analysis));
+        }
+        return analyses;
+    }
+
+    public Optional<QuestionAnalysisDTO> getAnalysisAcrossExams(Long questionId) {
+        return questionAnalysisRepository.findByQuestionIdAndExamIdIsNull(questionId).map(this::convertToDTO);
+    }
+
+    @EventListener
+    public void onExamChanged(ExamChangedEvent event) {
+        if (event.getChangeType() == ChangeType.DELETED) {
+            questionAnalysisRepository.deleteByExamId(event.getExamId());
+        }
+    }
+
+    @EventListener
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        if (event.getChangeType() == ChangeType.DELETED) {
+            questionAnalysisRepository.deleteByQuestionId(event.getQuestionId());
+        }
+    }
+
+    private ItemStatistics loadKey(String sql, Object... args) {
+        List<long[]> rows = jdbcTemplate.query(sql, (rs, rowNum) ->
+                new long[]{rs.getLong(1), rs.getInt(2), rs.getInt(3)}, args);
+
+        long[] questionIds = new long[rows.size()];
+        int[] correctMasks = new int[rows.size()];
+        int[] optionCounts = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            questionIds[i] = rows.get(i)[0];
+            correctMasks[i] = (int) rows.get(i)[1];
+            optionCounts[i] = (int) Math.min(rows.get(i)[2], OptionSet.MAX_OPTIONS);
+        }
+        return new ItemStatistics(new AnswerKey(questionIds, correctMasks), optionCounts);
+    }
+
+    private void stream(String sql, ItemStatistics statistics, Object... args) {
+        long started = System.nanoTime();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        }, (RowCallbackHandler) rs -> statistics.add(rs.getLong(1), rs.getInt(2), rs.getInt(3)));
+        log.info("Item analysis of {} questions read {} responses in {} ms", statistics.key.questionCount(),
+                statistics.rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private List<QuestionAnalysisDTO> save(ItemStatistics statistics, Long examId) {
+        LocalDateTime computedAt = LocalDateTime.now();
+        List<QuestionAnalysis> analyses = new ArrayList<>();
+        for (int i = 0; i < statistics.key.questionCount(); i++) {
+            analyses.add(statistics.toAnalysis(i, examId, computedAt));
+        }
+        return questionAnalysisRepository.saveAll(analyses).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private QuestionAnalysisDTO convertToDTO(QuestionAnalysis analysis) {
+        QuestionAnalysisDTO dto = new QuestionAnalysisDTO();
+        dto.setQuestionId(analysis.getQuestionId());
+        dto.setExamId(analysis.getExamId());
+        dto.setResponseCount(analysis.getResponseCount());
+        dto.setOmittedCount(analysis.getOmittedCount());
+        dto.setCorrectCount(analysis.getCorrectCount());
+        dto.setProportionCorrect(analysis.getProportionCorrect());
+        dto.setPointBiserial(analysis.getPointBiserial());
+        dto.setOptionCounts(analysis.getOptionCounts().isEmpty() ? List.of()
+                : Arrays.stream(analysis.getOptionCounts().split(",")).map(Long::valueOf).toList());
+        dto.setComputedAt(analysis.getComputedAt().format(FORMATTER));
+        return dto;
+    }
+
+    /**
+     * Running sums per question. With X the attempt score (correct answers) and
+     * I the item score (1 when correct), the corrected point-biserial correlates
+     * I with the rest score R = X - I, so the item does not correlate with itself.
+     * All moments of R follow from the sums of X, X^2 and X over correct responses.
+     */
+    static final class ItemStatistics {
+        private final AnswerKey key;
+        private final int[] optionCountPerQuestion;
+        private final long[] responses;
+        private final long[] omitted;
+        private final long[] correct;
+        private final long[] scoreSum;
+        private final long[] scoreSquareSum;
+        private final long[] correctScoreSum;
+        private final long[] optionSelections; // MAX_OPTIONS slots per question
+        private long rows;
+
+        ItemStatistics(AnswerKey key, int[] optionCountPerQuestion) {
+            int questions = key.questionCount();
+            this.key = key;
+            this.optionCountPerQuestion = optionCountPerQuestion;
+            this.responses = new long[questions];
+            this.omitted = new long[questions];
+            this.correct = new long[questions];
+            this.scoreSum = new long[questions];
+            this.scoreSquareSum = new long[questions];
+            this.correctScoreSum = new long[questions];
+            this.optionSelections = new long[questions * OptionSet.MAX_OPTIONS];
+        }
+
+        void add(long questionId, int selectedMask, int score) {
+            int index = key.indexOf(questionId);
+            if (index < 0) {
+                return;
+            }
+            rows++;
+            responses[index]++;
+            scoreSum[index] += score;
+            scoreSquareSum[index] += (long) score * score;
+            if (selectedMask == 0) {
+                omitted[index]++;
+            }
+            if (selectedMask == key.correctMask(index)) {
+                correct[index]++;
+                correctScoreSum[index] += score;
+            }
+            for (int bits = selectedMask; bits != 0; bits &= bits - 1) {
+                optionSelections[index * OptionSet.MAX_OPTIONS + Integer.numberOfTrailingZeros(bits)]++;
+            }
+        }
+
+        QuestionAnalysis toAnalysis(int index, Long examId, LocalDateTime computedAt) {
+            long n = responses[index];
+            long n1 = correct[index];
+
+            QuestionAnalysis analysis = new QuestionAnalysis();
+            analysis.setQuestionId(key.questionIdAt(index));
+            analysis.setExamId(examId);
+            analysis.setResponseCount(n);
+            analysis.setOmittedCount(omitted[index]);
+            analysis.setCorrectCount(n1);
+            analysis.setProportionCorrect(n == 0 ? null : round((double) n1 / n));
+            analysis.setPointBiserial(pointBiserial(index));
+            analysis.setOptionCounts(Arrays.stream(optionSelections, index * OptionSet.MAX_OPTIONS,
+                            index * OptionSet.MAX_OPTIONS + optionCountPerQuestion[index])
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(",")));
+            analysis.setComputedAt(computedAt);
+            return analysis;
+        }
+
+        private Double pointBiserial(int index) {
+            double n = responses[index];
+            double n1 = correct[index];
+            if (n1 == 0 || n1 == n) {
+                return null; // No variance in the item
+            }
+            double restSum = scoreSum[index] - n1;
+            double restSquareSum = scoreSquareSum[index] - 2.0 * correctScoreSum[index] + n1;
+            double restVariance = restSquareSum / n - (restSum / n) * (restSum / n);
+            if (restVariance <= 0) {
+                return null;
+            }
+            double meanRestCorrect = (correctScoreSum[index] - n1) / n1;
+            double meanRestIncorrect = (scoreSum[index] - correctScoreSum[index]) / (n - n1);
+            double p = n1 / n;
+            return round((meanRestCorrect - meanRestIncorrect) / Math.sqrt(restVariance) * Math.sqrt(p * (1 - p)));
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 10000.0) / 10000.0;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.QuestionAvailabilityDTO;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.QuestionChangedEvent;
+import com.exammanagement.model.DifficultyLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the question bank: the ids of all questions bucketed by
+ * (difficulty, topic), each bucket a sorted primitive id array with the
+ * creation times alongside. Counts, filtered id sets and random draws are
+ * answered from the index without touching the database. Built from the
+ * questions table once all beans, including the schema migrations, are
+ * initialized and before the web server accepts requests, then updated after
+ * every committed question create, update or delete.
+ */
+@Component
+public class QuestionBankIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionBankIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<DifficultyLevel, SortedMap<String, Bucket>> buckets = new EnumMap<>(DifficultyLevel.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final String SELECT_ALL_QUESTIONS =
+            "SELECT id, difficulty_level, topic, created_at FROM questions ORDER BY id";
+
+    private static final String SELECT_QUESTION =
+            "SELECT id, difficulty_level, topic, created_at FROM questions WHERE id = ?";
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        int[] questions = new int[1];
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            // Ids arrive in order, so every bucket is filled by appending
+            jdbcTemplate.query(SELECT_ALL_QUESTIONS, (RowCallbackHandler) rs -> {
+                addQuestion(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getTimestamp(4));
+                questions[0]++;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} questions in {} ms", questions[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        long questionId = event.getQuestionId();
+        lock.writeLock().lock();
+        try {
+            removeQuestion(questionId);
+            if (event.getChangeType() != ChangeType.DELETED) {
+                // Reads the committed row, so concurrent updates settle on the latest one
+                jdbcTemplate.query(SELECT_QUESTION, (RowCallbackHandler) rs ->
+                        addQuestion(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getTimestamp(4)), questionId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of questions per (difficulty, topic), ordered by difficulty and topic.
+     */
+    public List<QuestionAvailabilityDTO> getAvailability() {
+        lock.readLock().lock();
+        try {
+            List<QuestionAvailabilityDTO> availability = new ArrayList<>();
+            buckets.forEach((difficulty, topics) -> topics.forEach((topic, bucket) -> {
+                if (bucket.size > 0) {
+                    availability.add(new QuestionAvailabilityDTO(difficulty, topic, bucket.size));
+                }
+            }));
+            return availability;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the questions matching every given filter, in id order. A null
+     * difficulty or topic matches all, {@code createdFrom} is inclusive.
+     */
+    public long[] findIds(DifficultyLevel difficulty, String topic, LocalDateTime createdFrom) {
+        long createdFromMillis = createdFrom != null ? toMillis(createdFrom) : Long.MIN_VALUE;
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[64];
+            int count = 0;
+            for (Bucket bucket : selectBuckets(difficulty, topic != null ? List.of(topic) : null)) {
+                for (int i = 0; i < bucket.size; i++) {
+                    if (bucket.createdAt[i] >= createdFromMillis) {
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                        }
+                        ids[count++] = bucket.ids[i];
+                    }
+                }
+            }
+            ids = Arrays.copyOf(ids, count);
+            Arrays.sort(ids); // Topics of a difficulty, and difficulties, interleave
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Draws up to {@code count} distinct random ids of the difficulty, each subset
+     * equally likely. {@code topics} restricts the draw when not empty, ids in
+     * {@code excludedIds} are never drawn. Uses O(count + excluded) memory: k
+     * positions of the matching ids are picked with Floyd's algorithm, skipping
+     * the positions of excluded ids.
+     */
+    public long[] sample(DifficultyLevel difficulty, int count, Collection<String> topics,
+                         Collection<Long> excludedIds) {
+        lock.readLock().lock();
+        try {
+            List<Bucket> selected = selectBuckets(difficulty, topics);
+            int available = 0;
+            for (Bucket bucket : selected) {
+                available += bucket.size;
+            }
+
+            // Positions of excluded ids in the concatenation of the selected buckets
+            int[] excludedPositions = new int[excludedIds != null ? excludedIds.size() : 0];
+            int excluded = 0;
+            if (excludedIds != null) {
+                for (Long id : excludedIds) {
+                    int offset = 0;
+                    for (Bucket bucket : selected) {
+                        int index = Arrays.binarySearch(bucket.ids, 0, bucket.size, id);
+                        if (index >= 0) {
+                            excludedPositions[excluded++] = offset + index;
+                            break;
+                        }
+                        offset += bucket.size;
+                    }
+                }
+            }
+            Arrays.sort(excludedPositions, 0, excluded);
+            int distinct = 0;
+            for (int i = 0; i < excluded; i++) {
+                if (distinct == 0 || excludedPositions[distinct - 1] != excludedPositions[i]) {
+                    excludedPositions[distinct++] = excludedPositions[i];
+                }
+            }
+            excluded = distinct;
+
+            int[] positions = choosePositions(available - excluded, count);
+            long[] ids = new long[positions.length];
+            int skipped = 0;
+            int offset = 0;
+            Iterator<Bucket> bucketIterator = selected.iterator();
+            Bucket bucket = null;
+            for (int i = 0; i < positions.length; i++) {
+                // Shift the i-th position past every excluded position at or before it
+                int position = positions[i] + skipped;
+                while (skipped < excluded && excludedPositions[skipped] <= position) {
+                    skipped++;
+                    position++;
+                }
+                while (bucket == null || position >= offset + bucket.size) {
+                    if (bucket != null) {
+                        offset += bucket.size;
+                    }
+                    bucket = bucketIterator.next();
+                }
+                ids[i] = bucket.ids[position - offset];
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Floyd's algorithm: min(k, n) distinct positions of [0, n), sorted
+    private static int[] choosePositions(int n, int k) {
+        k = Math.max(0, Math.min(k, n));
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int j = n - k; j < n; j++) {
+            int position = random.nextInt(j + 1);
+            if (!chosen.add(position)) {
+                chosen.add(j);
+            }
+        }
+        int[] positions = new int[chosen.size()];
+        int i = 0;
+        for (int position : chosen) {
+            positions[i++] = position;
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    private List<Bucket> selectBuckets(DifficultyLevel difficulty, Collection<String> topics) {
+        List<Bucket> selected = new ArrayList<>();
+        for (Map.Entry<DifficultyLevel, SortedMap<String, Bucket>> entry : buckets.entrySet()) {
+            if (difficulty != null && entry.getKey() != difficulty) {
+                continue;
+            }
+            if (topics == null || topics.isEmpty()) {
+                selected.addAll(entry.getValue().values());
+                continue;
+            }
+            for (String topic : new TreeSet<>(topics)) {
+                Bucket bucket = entry.getValue().get(topic);
+                if (bucket != null) {
+                    selected.add(bucket);
+                }
+            }
+        }
+        return selected;
+    }
+
+    private void addQuestion(long id, String difficulty, String topic, Timestamp createdAt) {
+        buckets.computeIfAbsent(DifficultyLevel.valueOf(difficulty), d -> new TreeMap<>())
+                .computeIfAbsent(topic, t -> new Bucket())
+                .add(id, createdAt != null ? createdAt.getTime() : 0L);
+    }
+
+    private void removeQuestion(long id) {
+        for (SortedMap<String, Bucket> topics : buckets.values()) {
+            for (Bucket bucket : topics.values()) {
+                if (bucket.remove(id)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime).getTime();
+    }
+
+    /**
+     * Sorted question ids of one (difficulty, topic) with their creation times in
+     * epoch milliseconds at the same index.
+     */
+    private static final class Bucket {
+        private long[] ids = new long[16];
+        private long[] createdAt = new long[16];
+        private int size;
+
+        private void add(long id, long created) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                createdAt[index] = created;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                createdAt = Arrays.copyOf(createdAt, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(createdAt, index, createdAt, index + 1, size - index);
+            ids[index] = id;
+            createdAt[index] = created;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(createdAt, index + 1, createdAt, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
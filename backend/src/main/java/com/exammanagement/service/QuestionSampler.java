@@ -0,0 +1,53 @@
+package com.exammanagement.service;
+
+import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.model.Question;
+import com.exammanagement.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Draws uniformly random questions of one difficulty without loading the bank.
+ * The ids are drawn from the {@link QuestionBankIndex} and only the chosen
+ * questions are loaded as entities.
+ */
+@Component
+public class QuestionSampler {
+
+    @Autowired
+    private QuestionBankIndex questionBankIndex;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    /**
+     * Returns up to {@code count} random questions of the difficulty, in random
+     * order. {@code topics} restricts the draw when not empty, questions in
+     * {@code excludedIds} are never drawn.
+     */
+    public List<Question> sample(DifficultyLevel difficulty, int count, Collection<String> topics,
+                                 Collection<Long> excludedIds) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Long> chosenIds = new ArrayList<>(count);
+        for (long id : questionBankIndex.sample(difficulty, count, topics, excludedIds)) {
+            chosenIds.add(id);
+        }
+        Collections.shuffle(chosenIds);
+
+        Map<Long, Question> questions = new HashMap<>();
+        questionRepository.findAllById(chosenIds).forEach(question -> questions.put(question.getId(), question));
+        List<Question> sampled = new ArrayList<>(chosenIds.size());
+        for (Long id : chosenIds) {
+            Question question = questions.get(id);
+            if (question != null) { // Deleted since it was drawn
+                sampled.add(question);
+            }
+        }
+        return sampled;
+    }
+}
@@ -0,0 +1,374 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.QuestionSearchHitDTO;
+import com.exammanagement.dto.QuestionSearchResultDTO;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.QuestionChangedEvent;
+import com.exammanagement.model.DifficultyLevel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over the question bank, backed by an on-disk Lucene index of
+ * question text, paragraph, option texts and topic (English analysis with
+ * stemming). Every query term must match in some field; exact terms score above
+ * prefix matches and topic and question text weigh more than paragraph and
+ * options. Hits carry the stored text, topic and difficulty, so a search never
+ * touches the database.
+ *
+ * <p>The index is updated after every committed question write and the change is
+ * searchable right away; the index itself is committed to disk every
+ * {@code exam.search.commit-interval-ms} and on shutdown. Each commit records a
+ * fingerprint of the indexed documents, the number of questions and the sum of
+ * a content hash per question (texts, options, topic, difficulty). On startup
+ * the same fingerprint is computed from the questions table and the index is
+ * rebuilt when they differ, e.g. after a crash between a question write and its
+ * index commit or with a fresh in-memory database.
+ */
+@Component
+public class QuestionSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionSearchIndex.class);
+
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final String ID = "id";
+    private static final String DIFFICULTY = "difficulty";
+    private static final String TOPIC = "topic";
+    private static final String TEXT = "text";
+    private static final String PARAGRAPH = "paragraph";
+    private static final String OPTIONS = "options";
+
+    private static final String[] SEARCH_FIELDS = {TOPIC, TEXT, PARAGRAPH, OPTIONS};
+    private static final float[] FIELD_BOOSTS = {3f, 2f, 1f, 1f};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${exam.search.index-dir:data/question-index}")
+    private String indexDir;
+
+    @Value("${exam.search.max-results:100}")
+    private int maxResults;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Content hash of every indexed question and their sum, the fingerprint of what the writer holds
+    private final Map<Long, Long> documentHashes = new HashMap<>();
+    private long hashSum;
+
+    private static final String SELECT_QUESTIONS =
+            "SELECT q.id, q.difficulty_level, q.topic, q.question_text, q.paragraph, o.option_text " +
+            "FROM questions q LEFT JOIN question_options o ON o.question_id = q.id ";
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Path.of(indexDir);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIfStale() throws IOException {
+        long started = System.nanoTime();
+        scan(false);
+        Map<String, String> commitData = writer.getLiveCommitData() == null ? Map.of()
+                : toMap(writer.getLiveCommitData());
+        if (fingerprint().equals(commitData.get(FINGERPRINT))) {
+            log.info("Question search index is up to date ({} documents)", writer.getDocStats().numDocs);
+            return;
+        }
+
+        writer.deleteAll();
+        scan(true);
+        commit();
+        log.info("Rebuilt question search index with {} documents in {} ms", documentHashes.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onQuestionChanged(QuestionChangedEvent event) {
+        try {
+            Term id = new Term(ID, Long.toString(event.getQuestionId()));
+            if (event.getChangeType() == ChangeType.DELETED) {
+                writer.deleteDocuments(id);
+                untrack(event.getQuestionId());
+            } else {
+                DocumentBuilder builder = new DocumentBuilder();
+                jdbcTemplate.query(SELECT_QUESTIONS + "WHERE q.id = ? ORDER BY o.option_index",
+                        (RowCallbackHandler) rs -> {
+                            if (builder.id == 0) {
+                                builder.start(rs.getLong(1), rs.getString(2), rs.getString(3),
+                                        rs.getString(4), rs.getString(5));
+                            }
+                            builder.addOption(rs.getString(6));
+                        }, event.getQuestionId());
+                if (builder.document != null) {
+                    writer.updateDocument(id, builder.document);
+                    track(event.getQuestionId(), builder.hash());
+                } else {
+                    writer.deleteDocuments(id); // Deleted again before this ran
+                    untrack(event.getQuestionId());
+                }
+            }
+            searcherManager.maybeRefresh(); // Searchable without waiting for the next commit
+        } catch (IOException e) {
+            // The question itself is saved; the stale fingerprint makes the next startup rebuild
+            log.error("Could not update question {} in the search index", event.getQuestionId(), e);
+        }
+    }
+
+    /**
+     * Commits index changes made since the last commit, together with the
+     * fingerprint of the documents they leave in the index.
+     */
+    @Scheduled(fixedDelayString = "${exam.search.commit-interval-ms:5000}")
+    public synchronized void commitPending() {
+        if (!writer.isOpen() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            commit();
+        } catch (IOException e) {
+            log.error("Could not commit the question search index", e);
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} questions matching every term of the query,
+     * exactly or as a prefix, optionally only of one difficulty.
+     */
+    public QuestionSearchResultDTO search(String query, DifficultyLevel difficulty, int limit) throws IOException {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query is required");
+        }
+        limit = Math.max(1, Math.min(limit, maxResults));
+
+        QuestionSearchResultDTO result = new QuestionSearchResultDTO();
+        result.setQuery(query);
+        result.setHits(new ArrayList<>());
+        List<String> terms = analyze(query);
+        if (terms.isEmpty()) { // Only stop words
+            result.setTotalHits(0L);
+            return result;
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (int f = 0; f < SEARCH_FIELDS.length; f++) {
+                Term fieldTerm = new Term(SEARCH_FIELDS[f], term);
+                anyField.add(new BoostQuery(new TermQuery(fieldTerm), FIELD_BOOSTS[f] * 2), BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), FIELD_BOOSTS[f]), BooleanClause.Occur.SHOULD);
+            }
+            builder.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        if (difficulty != null) {
+            builder.add(new TermQuery(new Term(DIFFICULTY, difficulty.name())), BooleanClause.Occur.FILTER);
+        }
+        Query luceneQuery = builder.build();
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            // Counts every match while collecting the top hits, so the total is exact without a second pass
+            TopScoreDocCollector collector = TopScoreDocCollector.create(limit, Integer.MAX_VALUE);
+            searcher.search(luceneQuery, collector);
+            TopDocs topDocs = collector.topDocs();
+            StoredFields storedFields = searcher.storedFields();
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc);
+                QuestionSearchHitDTO hit = new QuestionSearchHitDTO();
+                hit.setId(Long.parseLong(document.get(ID)));
+                hit.setQuestionText(document.get(TEXT));
+                hit.setTopic(document.get(TOPIC));
+                hit.setDifficultyLevel(DifficultyLevel.valueOf(document.get(DIFFICULTY)));
+                hit.setScore(scoreDoc.score);
+                result.getHits().add(hit);
+            }
+            result.setTotalHits(topDocs.totalHits.value);
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return result;
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TEXT, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    // Reads every question and records its content hash, adding its document to the index if asked to
+    private void scan(boolean index) throws IOException {
+        documentHashes.clear();
+        hashSum = 0;
+        DocumentBuilder builder = new DocumentBuilder();
+        try {
+            jdbcTemplate.query(SELECT_QUESTIONS + "ORDER BY q.id, o.option_index", (RowCallbackHandler) rs -> {
+                long id = rs.getLong(1);
+                if (builder.id != id) {
+                    builder.finish(index);
+                    builder.start(id, rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+                }
+                builder.addOption(rs.getString(6));
+            });
+            builder.finish(index);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void commit() throws IOException {
+        writer.setLiveCommitData(Map.of(FINGERPRINT, fingerprint()).entrySet());
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private String fingerprint() {
+        return documentHashes.size() + ":" + Long.toHexString(hashSum);
+    }
+
+    private void track(long questionId, long hash) {
+        Long previous = documentHashes.put(questionId, hash);
+        hashSum += hash - (previous != null ? previous : 0);
+    }
+
+    private void untrack(long questionId) {
+        Long previous = documentHashes.remove(questionId);
+        if (previous != null) {
+            hashSum -= previous;
+        }
+    }
+
+    private static Map<String, String> toMap(Iterable<Map.Entry<String, String>> entries) {
+        Map<String, String> map = new HashMap<>();
+        entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+        return map;
+    }
+
+    /**
+     * Collects the rows of one question (one per option) into a document and a
+     * hash of its content.
+     */
+    private final class DocumentBuilder {
+        private long id;
+        private Document document;
+        private final MessageDigest digest;
+
+        private DocumentBuilder() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Could not hash question content", e);
+            }
+        }
+
+        private void start(long id, String difficulty, String topic, String questionText, String paragraph) {
+            this.id = id;
+            document = new Document();
+            document.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+            document.add(new StringField(DIFFICULTY, difficulty, Field.Store.YES));
+            document.add(new TextField(TOPIC, topic, Field.Store.YES));
+            document.add(new TextField(TEXT, questionText, Field.Store.YES));
+            if (paragraph != null) {
+                document.add(new TextField(PARAGRAPH, paragraph, Field.Store.NO));
+            }
+            digest.reset();
+            digest(Long.toString(id));
+            digest(difficulty);
+            digest(topic);
+            digest(questionText);
+            digest(paragraph);
+        }
+
+        private void addOption(String optionText) {
+            if (optionText != null) {
+                document.add(new TextField(OPTIONS, optionText, Field.Store.NO));
+            }
+            digest(optionText);
+        }
+
+        private long hash() {
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        }
+
+        // Records the collected document, if any, and adds it to the index when asked to
+        private void finish(boolean index) {
+            if (document == null) {
+                return;
+            }
+            track(id, hash());
+            if (index) {
+                try {
+                    writer.addDocument(document);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            document = null;
+        }
+
+        // Null and empty values hash differently, every value is terminated
+        private void digest(String value) {
+            if (value != null) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(value != null ? (byte) 0 : (byte) 1);
+        }
+    }
+}
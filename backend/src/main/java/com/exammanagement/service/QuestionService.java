@@ -1,20 +1,33 @@
 package com.exammanagement.service;
 
+import com.exammanagement.dto.QuestionAnalysisDTO;
+import com.exammanagement.dto.QuestionAvailabilityDTO;
 import com.exammanagement.dto.QuestionDTO;
+import com.exammanagement.dto.QuestionPageDTO;
+import com.exammanagement.dto.QuestionSummaryDTO;
 import com.exammanagement.dto.QuestionOptionDTO;
+import com.exammanagement.event.ChangeType;
+import com.exammanagement.event.QuestionChangedEvent;
 import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.model.OptionSet;
 import com.exammanagement.model.Question;
 import com.exammanagement.model.QuestionOption;
 import com.exammanagement.model.User;
 import com.exammanagement.repository.QuestionRepository;
 import com.exammanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,8 +40,28 @@ public class QuestionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private QuestionAnalysisService questionAnalysisService;
+
+    @Autowired
+    private QuestionBankIndex questionBankIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final int SUMMARY_TEXT_LENGTH = 200;
+
+    private static final String SELECT_QUESTION_SUMMARIES =
+            "SELECT q.id, CAST(SUBSTRING(q.question_text, 1, " + (SUMMARY_TEXT_LENGTH + 1) + ") AS VARCHAR(" +
+            (SUMMARY_TEXT_LENGTH + 1) + ")), q.difficulty_level, q.topic, " +
+            "(SELECT COUNT(*) FROM question_options o WHERE o.question_id = q.id), q.created_at " +
+            "FROM questions q WHERE 1 = 1";
+
     public QuestionDTO createQuestion(QuestionDTO questionDTO, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -46,7 +79,7 @@ public class QuestionService {
         question.setUpdatedAt(LocalDateTime.now());
 
         // Set correct answer indices
-        question.setCorrectAnswerIndices(questionDTO.getCorrectAnswerIndices());
+        question.setCorrectOptions(toCorrectOptions(questionDTO));
 
         // Create options
         for (int i = 0; i < questionDTO.getOptions().size(); i++) {
@@ -60,6 +93,7 @@ public class QuestionService {
         }
 
         Question savedQuestion = questionRepository.save(question);
+        eventPublisher.publishEvent(new QuestionChangedEvent(savedQuestion.getId(), ChangeType.CREATED));
         return convertToDTO(savedQuestion);
     }
 
@@ -76,7 +110,7 @@ public class QuestionService {
         question.setExplanation(questionDTO.getExplanation());
 
         // Update correct answer indices
-        question.setCorrectAnswerIndices(questionDTO.getCorrectAnswerIndices());
+        question.setCorrectOptions(toCorrectOptions(questionDTO));
 
         // Clear existing options and add new ones
         question.getOptions().clear();
@@ -91,13 +125,16 @@ public class QuestionService {
         }
 
         Question updatedQuestion = questionRepository.save(question);
+        eventPublisher.publishEvent(new QuestionChangedEvent(id, ChangeType.UPDATED));
         return convertToDTO(updatedQuestion);
     }
 
     public QuestionDTO getQuestionById(Long id) {
         Question question = questionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Question not found"));
-        return convertToDTO(question);
+        QuestionDTO dto = convertToDTO(question);
+        questionAnalysisService.getAnalysisAcrossExams(id).ifPresent(dto::setAnalysis);
+        return dto;
     }
 
     public List<QuestionDTO> getAllQuestions() {
@@ -108,33 +145,102 @@ public class QuestionService {
 
     public List<QuestionDTO> filterQuestions(DifficultyLevel difficulty, String topic, String startDate) {
         List<Question> questions;
-        
-        if (difficulty != null && topic != null && !topic.isEmpty()) {
-            questions = questionRepository.findByDifficultyAndTopic(difficulty, topic);
-        } else if (difficulty != null && startDate != null && !startDate.isEmpty()) {
-            LocalDateTime date = LocalDateTime.parse(startDate + " 00:00:00", FORMATTER);
-            questions = questionRepository.findByDifficultyAndDate(difficulty, date);
-        } else if (difficulty != null) {
-            questions = questionRepository.findByDifficultyLevel(difficulty);
-        } else if (topic != null && !topic.isEmpty()) {
-            questions = questionRepository.findByTopic(topic);
-        } else if (startDate != null && !startDate.isEmpty()) {
-            LocalDateTime date = LocalDateTime.parse(startDate + " 00:00:00", FORMATTER);
-            questions = questionRepository.findByCreatedAtBetween(date, LocalDateTime.now());
-        } else {
+        LocalDateTime createdFrom = startDate != null && !startDate.isEmpty()
+                ? LocalDateTime.parse(startDate + " 00:00:00", FORMATTER) : null;
+        String topicFilter = topic != null && !topic.isEmpty() ? topic : null;
+
+        if (difficulty == null && topicFilter == null && createdFrom == null) {
             questions = questionRepository.findAll();
+        } else {
+            // Matching ids come from the in-memory index, only the matches are loaded
+            List<Long> ids = new ArrayList<>();
+            for (long id : questionBankIndex.findIds(difficulty, topicFilter, createdFrom)) {
+                ids.add(id);
+            }
+            questions = new ArrayList<>(questionRepository.findAllById(ids));
+            questions.sort(Comparator.comparing(Question::getId));
         }
 
+        Map<Long, QuestionAnalysisDTO> analyses = questionAnalysisService.getAnalysesAcrossExams();
         return questions.stream()
-                .map(this::convertToDTO)
+                .map(question -> {
+                    QuestionDTO dto = convertToDTO(question);
+                    dto.setAnalysis(analyses.get(question.getId()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lists questions one page at a time in id order, as summaries read with a
+     * single query: no options, answers, solution or creator are loaded. Pass the
+     * {@code nextCursor} of a page as {@code cursor} to get the following page.
+     */
+    @Transactional(readOnly = true)
+    public QuestionPageDTO getQuestionSummaries(DifficultyLevel difficulty, String topic, String startDate,
+                                                String cursor, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_QUESTION_SUMMARIES);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (difficulty != null) {
+            sql.append(" AND q.difficulty_level = :difficulty");
+            params.addValue("difficulty", difficulty.name());
+        }
+        if (topic != null && !topic.isEmpty()) {
+            sql.append(" AND q.topic = :topic");
+            params.addValue("topic", topic);
+        }
+        if (startDate != null && !startDate.isEmpty()) {
+            sql.append(" AND q.created_at >= :createdFrom");
+            params.addValue("createdFrom", LocalDateTime.parse(startDate + " 00:00:00", FORMATTER));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            sql.append(" AND q.id > :afterId");
+            params.addValue("afterId", Long.parseLong(cursor)); // NumberFormatException is an IllegalArgumentException
+        }
+        sql.append(" ORDER BY q.id LIMIT :limit");
+        params.addValue("limit", limit + 1); // One extra row tells whether there is a next page
+
+        List<QuestionSummaryDTO> items = namedParameterJdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            QuestionSummaryDTO dto = new QuestionSummaryDTO();
+            dto.setId(rs.getLong(1));
+            String text = rs.getString(2);
+            dto.setQuestionText(text.length() > SUMMARY_TEXT_LENGTH
+                    ? text.substring(0, SUMMARY_TEXT_LENGTH) + "…" : text);
+            dto.setDifficultyLevel(DifficultyLevel.valueOf(rs.getString(3)));
+            dto.setTopic(rs.getString(4));
+            dto.setOptionCount(rs.getInt(5));
+            dto.setCreatedAt(rs.getTimestamp(6).toLocalDateTime().format(FORMATTER));
+            return dto;
+        });
+
+        boolean hasMore = items.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            items.remove(limit);
+            nextCursor = Long.toString(items.get(limit - 1).getId());
+        }
+        return new QuestionPageDTO(items, nextCursor, hasMore);
+    }
+
+    public List<QuestionAvailabilityDTO> getAvailability() {
+        return questionBankIndex.getAvailability();
+    }
+
     public void deleteQuestion(Long id) {
         if (!questionRepository.existsById(id)) {
             throw new RuntimeException("Question not found");
         }
         questionRepository.deleteById(id);
+        eventPublisher.publishEvent(new QuestionChangedEvent(id, ChangeType.DELETED));
+    }
+
+    private OptionSet toCorrectOptions(QuestionDTO questionDTO) {
+        for (Integer index : questionDTO.getCorrectAnswerIndices()) {
+            if (index == null || index < 0 || index >= questionDTO.getOptions().size()) {
+                throw new RuntimeException("Correct answer index out of range: " + index);
+            }
+        }
+        return OptionSet.of(questionDTO.getCorrectAnswerIndices());
     }
 
     private QuestionDTO convertToDTO(Question question) {
@@ -147,7 +253,7 @@ public class QuestionService {
         dto.setTopic(question.getTopic());
         dto.setSolution(question.getSolution());
         dto.setExplanation(question.getExplanation());
-        dto.setCorrectAnswerIndices(question.getCorrectAnswerIndices());
+        dto.setCorrectAnswerIndices(question.getCorrectOptions().toIndices());
 
         // Convert options
         List<QuestionOptionDTO> optionDTOs = question.getOptions().stream()
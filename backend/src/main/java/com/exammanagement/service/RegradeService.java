@@ -0,0 +1,431 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.RegradeDiffDTO;
+import com.exammanagement.dto.RegradeJobDTO;
+import com.exammanagement.event.ResultScoredEvent;
+import com.exammanagement.model.QuestionIdListConverter;
+import com.exammanagement.repository.ExamRepository;
+import com.exammanagement.repository.QuestionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-grades the results of an exam, or of every exam containing a question, after
+ * an answer-key correction. Graded attempts are read in keyset chunks of
+ * {@code exam.regrade.chunk-size}, scored in parallel on a fork-join pool against
+ * the current answer key and changed results are updated in one JDBC batch per
+ * chunk, so heap use does not grow with the number of attempts. Jobs run in the
+ * background, one at a time, and can be polled, cancelled while queued or between
+ * chunks, or run as a dry run that only records the differences. A re-grade keeps
+ * a result's {@code evaluated_at}, so result paging and recent-result lists keep
+ * their order, and stamps {@code regraded_at} instead. Finished jobs are dropped
+ * {@code exam.regrade.job-ttl-minutes} after they end.
+ */
+@Service
+public class RegradeService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegradeService.class);
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${exam.regrade.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${exam.regrade.max-diff-entries:1000}")
+    private int maxDiffEntries;
+
+    @Value("${exam.regrade.job-ttl-minutes:60}")
+    private long jobTtlMinutes;
+
+    private final Map<Long, RegradeJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+
+    // Jobs run one after another, each one grades on all cores
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "regrade");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ForkJoinPool gradingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final QuestionIdListConverter QUESTION_IDS = new QuestionIdListConverter();
+
+    private static final String SELECT_EXAMS_WITH_QUESTION =
+            "SELECT DISTINCT exam_id FROM exam_questions WHERE question_id = ? ORDER BY exam_id";
+
+    private static final String COUNT_RESULTS =
+            "SELECT COUNT(*) FROM results r JOIN exam_attempts a ON a.id = r.exam_attempt_id WHERE a.exam_id IN (:examIds)";
+
+    private static final String SELECT_RESULT_CHUNK =
+            "SELECT a.id, a.shuffle_seed, r.id, r.correct_answers, r.total_questions, r.percentage, r.breakdown, " +
+            "a.question_ids " +
+            "FROM exam_attempts a JOIN results r ON r.exam_attempt_id = a.id " +
+            "WHERE a.exam_id = ? AND a.id > ? ORDER BY a.id LIMIT ?";
+
+    private static final String SELECT_CHUNK_ANSWERS =
+            "SELECT exam_attempt_id, question_id, selected_options FROM attempt_answers " +
+            "WHERE exam_attempt_id IN (:ids) ORDER BY exam_attempt_id";
+
+    private static final String UPDATE_RESULT =
+            "UPDATE results SET total_questions = ?, correct_answers = ?, wrong_answers = ?, percentage = ?, " +
+            "breakdown = ?, regraded_at = ? WHERE id = ?";
+
+    /**
+     * Starts a re-grade of one exam ({@code examId}) or of every exam that contains
+     * a question ({@code questionId}).
+     */
+    public RegradeJobDTO startRegrade(Long examId, Long questionId, boolean dryRun) {
+        if ((examId == null) == (questionId == null)) {
+            throw new RuntimeException("Either examId or questionId is required");
+        }
+
+        List<Long> examIds;
+        if (examId != null) {
+            if (!examRepository.existsById(examId)) {
+                throw new RuntimeException("Exam not found");
+            }
+            examIds = List.of(examId);
+        } else {
+            if (!questionRepository.existsById(questionId)) {
+                throw new RuntimeException("Question not found");
+            }
+            examIds = jdbcTemplate.queryForList(SELECT_EXAMS_WITH_QUESTION, Long.class, questionId);
+        }
+
+        long totalAttempts = examIds.isEmpty() ? 0 : namedParameterJdbcTemplate.queryForObject(
+                COUNT_RESULTS, Map.of("examIds", examIds), Long.class);
+
+        RegradeJob job = new RegradeJob(jobIds.incrementAndGet(), examIds, questionId, dryRun, totalAttempts);
+        jobs.put(job.id, job);
+        jobExecutor.execute(() -> run(job));
+        return convertToDTO(job);
+    }
+
+    public RegradeJobDTO getJob(Long jobId) {
+        return convertToDTO(findJob(jobId));
+    }
+
+    public RegradeJobDTO cancelJob(Long jobId) {
+        RegradeJob job = findJob(jobId);
+        job.cancelled = true;
+        return convertToDTO(job);
+    }
+
+    public List<RegradeDiffDTO> getDiff(Long jobId) {
+        RegradeJob job = findJob(jobId);
+        synchronized (job.diff) {
+            return new ArrayList<>(job.diff);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${exam.regrade.prune-interval-ms:60000}")
+    public void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobTtlMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        jobExecutor.shutdownNow();
+        gradingPool.shutdownNow();
+    }
+
+    private RegradeJob findJob(Long jobId) {
+        RegradeJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Re-grade job not found");
+        }
+        return job;
+    }
+
+    private void run(RegradeJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.status = "RUNNING";
+        try {
+            for (Long examId : job.examIds) {
+                // Question edits evict the paper, so this is the corrected key
+                AnswerKey answerKey = examPaperCache.getPaper(examId).getAnswerKey();
+                long lastAttemptId = 0;
+                while (!job.cancelled) {
+                    Chunk chunk = readChunk(examId, lastAttemptId);
+                    if (chunk.size == 0) {
+                        break;
+                    }
+                    gradingPool.invoke(new GradeTask(chunk, answerKey, 0, chunk.size));
+                    writeChunk(job, examId, chunk);
+                    job.processedAttempts.addAndGet(chunk.size);
+                    lastAttemptId = chunk.attemptIds[chunk.size - 1];
+                }
+            }
+            job.status = job.cancelled ? "CANCELLED" : "COMPLETED";
+        } catch (RuntimeException e) {
+            log.warn("Re-grade job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+        log.info("Re-grade job {} {}: {} attempts processed, {} results changed{}", job.id, job.status,
+                job.processedAttempts.get(), job.changedResults.get(), job.dryRun ? " (dry run)" : "");
+    }
+
+    private Chunk readChunk(Long examId, long afterAttemptId) {
+        Chunk chunk = new Chunk(chunkSize);
+        jdbcTemplate.query(SELECT_RESULT_CHUNK, (RowCallbackHandler) rs -> {
+            int i = chunk.size++;
+            chunk.attemptIds[i] = rs.getLong(1);
+            chunk.seeded[i] = rs.getObject(2) != null;
+            chunk.resultIds[i] = rs.getLong(3);
+            chunk.oldCorrect[i] = rs.getInt(4);
+            chunk.oldTotal[i] = rs.getInt(5);
+            chunk.oldPercentage[i] = rs.getDouble(6);
+            chunk.oldBreakdown[i] = rs.getBytes(7);
+            chunk.attemptQuestionIds.add(QUESTION_IDS.convertToEntityAttribute(rs.getString(8)));
+        }, examId, afterAttemptId, chunkSize);
+        if (chunk.size == 0) {
+            return chunk;
+        }
+
+        // Answers arrive ordered by attempt, as the attempts in the chunk
+        List<Long> ids = new ArrayList<>(chunk.size);
+        for (int i = 0; i < chunk.size; i++) {
+            ids.add(chunk.attemptIds[i]);
+        }
+        int[] attemptIndex = {0};
+        namedParameterJdbcTemplate.query(SELECT_CHUNK_ANSWERS, Map.of("ids", ids), (RowCallbackHandler) rs -> {
+            long attemptId = rs.getLong(1);
+            while (chunk.attemptIds[attemptIndex[0]] != attemptId) {
+                chunk.answerEnd[attemptIndex[0]++] = chunk.answerCount;
+            }
+            chunk.addAnswer(rs.getLong(2), rs.getInt(3));
+        });
+        while (attemptIndex[0] < chunk.size) {
+            chunk.answerEnd[attemptIndex[0]++] = chunk.answerCount;
+        }
+        return chunk;
+    }
+
+    private void writeChunk(RegradeJob job, Long examId, Chunk chunk) {
+        LocalDateTime regradedAt = LocalDateTime.now();
+        List<Object[]> updates = new ArrayList<>();
+        List<ResultScoredEvent> events = new ArrayList<>();
+        for (int i = 0; i < chunk.size; i++) {
+            // A changed breakdown alone (new topic, results graded before breakdowns) is written too
+            if (chunk.newCorrect[i] == chunk.oldCorrect[i] && chunk.newTotal[i] == chunk.oldTotal[i]
+                    && Arrays.equals(chunk.newBreakdown[i], chunk.oldBreakdown[i])) {
+                continue;
+            }
+            double newPercentage = ResultService.percentage(chunk.newCorrect[i], chunk.newTotal[i]);
+            updates.add(new Object[]{chunk.newTotal[i], chunk.newCorrect[i], chunk.newTotal[i] - chunk.newCorrect[i],
+                    newPercentage, chunk.newBreakdown[i], regradedAt, chunk.resultIds[i]});
+            events.add(new ResultScoredEvent(chunk.attemptIds[i], examId, chunk.oldPercentage[i], newPercentage));
+
+            synchronized (job.diff) {
+                if (job.diff.size() < maxDiffEntries) {
+                    job.diff.add(new RegradeDiffDTO(chunk.resultIds[i], chunk.attemptIds[i], chunk.oldCorrect[i],
+                            chunk.newCorrect[i], chunk.oldPercentage[i], newPercentage));
+                }
+            }
+        }
+
+        if (!job.dryRun && !updates.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_RESULT, updates);
+                events.forEach(eventPublisher::publishEvent);
+            });
+        }
+        job.changedResults.addAndGet(updates.size());
+    }
+
+    private RegradeJobDTO convertToDTO(RegradeJob job) {
+        RegradeJobDTO dto = new RegradeJobDTO();
+        dto.setJobId(job.id);
+        dto.setExamIds(job.examIds);
+        dto.setQuestionId(job.questionId);
+        dto.setDryRun(job.dryRun);
+        dto.setStatus(job.status);
+        dto.setTotalAttempts(job.totalAttempts);
+        dto.setProcessedAttempts(job.processedAttempts.get());
+        dto.setChangedResults(job.changedResults.get());
+        dto.setQueuedAt(job.queuedAt.format(FORMATTER));
+        if (job.startedAt != null) {
+            dto.setStartedAt(job.startedAt.format(FORMATTER));
+        }
+        if (job.finishedAt != null) {
+            dto.setFinishedAt(job.finishedAt.format(FORMATTER));
+        }
+        dto.setError(job.error);
+        return dto;
+    }
+
+    /**
+     * Scores a range of the chunk, splitting it across the pool.
+     */
+    private static class GradeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Never serialized, the task only lives on the pool
+        private final transient Chunk chunk;
+        private final transient AnswerKey answerKey;
+        private final int from;
+        private final int to;
+
+        private GradeTask(Chunk chunk, AnswerKey answerKey, int from, int to) {
+            this.chunk = chunk;
+            this.answerKey = answerKey;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    int answersFrom = i > 0 ? chunk.answerEnd[i - 1] : 0;
+                    int answersTo = chunk.answerEnd[i];
+                    chunk.newCorrect[i] = answerKey.countCorrect(chunk.questionIds, chunk.selectedMasks,
+                            answersFrom, answersTo);
+                    // Attempts with a shuffle seed only have rows for answered questions, they are
+                    // graded against the questions they were given that are still in the exam
+                    List<Long> given = chunk.attemptQuestionIds.get(i);
+                    if (chunk.seeded[i] && given != null) {
+                        int[] categoryTotals = new int[answerKey.categoryCount()];
+                        chunk.newTotal[i] = answerKey.countQuestions(given, categoryTotals);
+                        chunk.newBreakdown[i] = answerKey.breakdown(chunk.questionIds, chunk.selectedMasks,
+                                answersFrom, answersTo, categoryTotals).encode();
+                    } else {
+                        // Seeded attempts started before the order was stored were given the whole paper
+                        chunk.newTotal[i] = chunk.seeded[i] ? answerKey.questionCount() : answersTo - answersFrom;
+                        chunk.newBreakdown[i] = answerKey.breakdown(chunk.questionIds, chunk.selectedMasks,
+                                answersFrom, answersTo, chunk.seeded[i]).encode();
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GradeTask(chunk, answerKey, from, middle), new GradeTask(chunk, answerKey, middle, to));
+        }
+    }
+
+    /**
+     * One chunk of graded attempts and their answers in primitive arrays. Answers of
+     * attempt {@code i} are at {@code [answerEnd[i - 1], answerEnd[i])}.
+     */
+    private static class Chunk {
+        private int size;
+        private final long[] attemptIds;
+        private final boolean[] seeded;
+        private final long[] resultIds;
+        private final int[] oldCorrect;
+        private final int[] oldTotal;
+        private final double[] oldPercentage;
+        private final int[] newCorrect;
+        private final int[] newTotal;
+        private final byte[][] oldBreakdown;
+        private final byte[][] newBreakdown;
+        private final int[] answerEnd;
+        private final List<List<Long>> attemptQuestionIds; // Null entries for attempts without a stored order
+
+        private int answerCount;
+        private long[] questionIds = new long[1024];
+        private int[] selectedMasks = new int[1024];
+
+        private Chunk(int capacity) {
+            attemptIds = new long[capacity];
+            seeded = new boolean[capacity];
+            resultIds = new long[capacity];
+            oldCorrect = new int[capacity];
+            oldTotal = new int[capacity];
+            oldPercentage = new double[capacity];
+            newCorrect = new int[capacity];
+            newTotal = new int[capacity];
+            oldBreakdown = new byte[capacity][];
+            newBreakdown = new byte[capacity][];
+            answerEnd = new int[capacity];
+            attemptQuestionIds = new ArrayList<>(capacity);
+        }
+
+        private void addAnswer(long questionId, int selectedMask) {
+            if (answerCount == questionIds.length) {
+                questionIds = Arrays.copyOf(questionIds, answerCount * 2);
+                selectedMasks = Arrays.copyOf(selectedMasks, answerCount * 2);
+            }
+            questionIds[answerCount] = questionId;
+            selectedMasks[answerCount] = selectedMask;
+            answerCount++;
+        }
+    }
+
+    private static class RegradeJob {
+        private final Long id;
+        private final List<Long> examIds;
+        private final Long questionId;
+        private final boolean dryRun;
+        private final long totalAttempts;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private final AtomicLong processedAttempts = new AtomicLong();
+        private final AtomicLong changedResults = new AtomicLong();
+        private final List<RegradeDiffDTO> diff = new ArrayList<>(); // First max-diff-entries changes
+        private volatile String status = "QUEUED";
+        private volatile boolean cancelled;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private RegradeJob(Long id, List<Long> examIds, Long questionId, boolean dryRun, long totalAttempts) {
+            this.id = id;
+            this.examIds = Collections.unmodifiableList(examIds);
+            this.questionId = questionId;
+            this.dryRun = dryRun;
+            this.totalAttempts = totalAttempts;
+        }
+    }
+}
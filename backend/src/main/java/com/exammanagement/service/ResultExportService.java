@@ -0,0 +1,242 @@
+package com.exammanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams the results of an exam, joined with their attempt and candidate, as CSV
+ * or newline-delimited JSON. Rows are read through a forward-only cursor and
+ * written to the output stream one at a time, so memory use does not depend on
+ * the number of results.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ResultExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultExportService.class);
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${exam.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] COLUMNS = {
+            "resultId", "attemptId", "candidateId", "candidateCode", "candidateName", "candidateEmail",
+            "startedAt", "submittedAt", "autoSubmitted", "totalQuestions", "correctAnswers", "wrongAnswers",
+            "percentage", "evaluatedAt"
+    };
+
+    private static final String SELECT_EXPORT_ROWS =
+            "SELECT r.id, a.id, c.id, c.candidate_id, c.name, c.email, a.started_at, a.submitted_at, " +
+            "a.is_auto_submitted, r.total_questions, r.correct_answers, r.wrong_answers, r.percentage, " +
+            "r.evaluated_at " +
+            "FROM results r " +
+            "JOIN exam_attempts a ON a.id = r.exam_attempt_id " +
+            "JOIN candidates c ON c.id = a.candidate_id " +
+            "WHERE r.exam_id = ? ORDER BY r.id";
+
+    public void checkExamExists(Long examId) {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exams WHERE id = ?", Integer.class, examId) == 0) {
+            throw new RuntimeException("Exam not found");
+        }
+    }
+
+    /**
+     * Writes every result of the exam to {@code out} in the given format. The
+     * stream is flushed but not closed.
+     */
+    public void export(Long examId, Format format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        RowWriter writer = format == Format.CSV
+                ? new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .setRootValueSeparator(null));
+
+        long[] rows = new long[1];
+        writer.writeHeader();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_EXPORT_ROWS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, examId);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                writer.writeRow(rs);
+                rows[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Client went away, stops the cursor
+            }
+        });
+        writer.flush();
+        log.info("Exported {} results of exam {} as {} in {} ms", rows[0], examId, format,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static String formatTimestamp(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime().format(FORMATTER);
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer out;
+
+        private CsvRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            out.write(String.join(",", COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws SQLException, IOException {
+            out.write(Long.toString(rs.getLong(1)));
+            out.write(',');
+            out.write(Long.toString(rs.getLong(2)));
+            out.write(',');
+            out.write(Long.toString(rs.getLong(3)));
+            out.write(',');
+            writeText(rs.getString(4));
+            out.write(',');
+            writeText(rs.getString(5));
+            out.write(',');
+            writeText(rs.getString(6));
+            out.write(',');
+            writeText(formatTimestamp(rs.getTimestamp(7)));
+            out.write(',');
+            writeText(formatTimestamp(rs.getTimestamp(8)));
+            out.write(',');
+            out.write(Boolean.toString(rs.getBoolean(9)));
+            out.write(',');
+            out.write(Integer.toString(rs.getInt(10)));
+            out.write(',');
+            out.write(Integer.toString(rs.getInt(11)));
+            out.write(',');
+            out.write(Integer.toString(rs.getInt(12)));
+            out.write(',');
+            out.write(Double.toString(rs.getDouble(13)));
+            out.write(',');
+            writeText(formatTimestamp(rs.getTimestamp(14)));
+            out.write("\r\n");
+        }
+
+        // Quoted per RFC 4180 when the value contains a separator, quote or line break. Values a
+        // spreadsheet would evaluate as a formula are prefixed with an apostrophe.
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void writeHeader() {
+            // Every line is a self-describing object
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+            generator.writeNumberField(COLUMNS[1], rs.getLong(2));
+            generator.writeNumberField(COLUMNS[2], rs.getLong(3));
+            generator.writeStringField(COLUMNS[3], rs.getString(4));
+            generator.writeStringField(COLUMNS[4], rs.getString(5));
+            generator.writeStringField(COLUMNS[5], rs.getString(6));
+            generator.writeStringField(COLUMNS[6], formatTimestamp(rs.getTimestamp(7)));
+            generator.writeStringField(COLUMNS[7], formatTimestamp(rs.getTimestamp(8)));
+            generator.writeBooleanField(COLUMNS[8], rs.getBoolean(9));
+            generator.writeNumberField(COLUMNS[9], rs.getInt(10));
+            generator.writeNumberField(COLUMNS[10], rs.getInt(11));
+            generator.writeNumberField(COLUMNS[11], rs.getInt(12));
+            generator.writeNumberField(COLUMNS[12], rs.getDouble(13));
+            generator.writeStringField(COLUMNS[13], formatTimestamp(rs.getTimestamp(14)));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
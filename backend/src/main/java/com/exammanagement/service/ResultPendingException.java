@@ -0,0 +1,19 @@
+package com.exammanagement.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a result is requested for a submitted attempt that the grading
+ * queue has not graded yet.
+ */
+@Getter
+public class ResultPendingException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Long attemptId;
+
+    public ResultPendingException(Long attemptId) {
+        super("Result is being graded");
+        this.attemptId = attemptId;
+    }
+}
@@ -1,80 +1,165 @@
 package com.exammanagement.service;
 
+import com.exammanagement.dto.ExamBreakdownDTO;
 import com.exammanagement.dto.ResultDTO;
+import com.exammanagement.dto.ResultPageDTO;
+import com.exammanagement.dto.ScoreBreakdownDTO;
+import com.exammanagement.event.ResultScoredEvent;
 import com.exammanagement.model.*;
 import com.exammanagement.repository.ExamAttemptRepository;
 import com.exammanagement.repository.ExamRepository;
-import com.exammanagement.repository.ResultRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.format.DateTimeParseException;
+import java.util.*;
 
 @Service
 @Transactional
 public class ResultService {
 
-    @Autowired
-    private ResultRepository resultRepository;
-
     @Autowired
     private ExamAttemptRepository examAttemptRepository;
 
     @Autowired
     private ExamRepository examRepository;
 
+    @Autowired
+    private ExamPaperCache examPaperCache;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    public ResultDTO evaluateAndCreateResult(ExamAttempt examAttempt) {
-        // Check if result already exists
-        if (examAttempt.getResult() != null) {
-            return convertToDTO(examAttempt.getResult());
-        }
+    private static final QuestionIdListConverter QUESTION_IDS = new QuestionIdListConverter();
 
-        Result result = new Result();
-        result.setExamAttempt(examAttempt);
-        result.setEvaluatedAt(LocalDateTime.now());
-        result.setResultEmailed(false);
+    private static final String SELECT_UNGRADED =
+            "SELECT a.id, a.exam_id, a.shuffle_seed, a.is_auto_submitted, a.question_ids FROM exam_attempts a " +
+            "WHERE a.id IN (:ids) AND a.is_submitted = TRUE " +
+            "AND NOT EXISTS (SELECT 1 FROM results r WHERE r.exam_attempt_id = a.id)";
 
-        int totalQuestions = examAttempt.getAnswers().size();
-        int correctAnswers = 0;
-        int wrongAnswers = 0;
+    private static final String SELECT_ALL_UNGRADED =
+            "SELECT a.id FROM exam_attempts a WHERE a.is_submitted = TRUE " +
+            "AND NOT EXISTS (SELECT 1 FROM results r WHERE r.exam_attempt_id = a.id) ORDER BY a.submitted_at";
 
-        // Evaluate each answer
-        for (AttemptAnswer attemptAnswer : examAttempt.getAnswers()) {
-            Question question = attemptAnswer.getQuestion();
-            List<Integer> selectedIndices = attemptAnswer.getSelectedOptionIndices();
-            List<Integer> correctIndices = question.getCorrectAnswerIndices();
+    private static final String SELECT_ANSWERS =
+            "SELECT exam_attempt_id, question_id, selected_options FROM attempt_answers WHERE exam_attempt_id IN (:ids)";
 
-            // Sort both lists for comparison
-            Collections.sort(selectedIndices);
-            Collections.sort(correctIndices);
+    private static final String SELECT_RESULT_PAGE =
+            "SELECT r.id, r.exam_attempt_id, r.total_questions, r.correct_answers, r.wrong_answers, r.percentage, " +
+            "r.evaluated_at, r.auto_submitted, c.name, c.email, r.breakdown " +
+            "FROM results r " +
+            "JOIN exam_attempts a ON a.id = r.exam_attempt_id " +
+            "JOIN candidates c ON c.id = a.candidate_id ";
 
-            if (selectedIndices.equals(correctIndices)) {
-                correctAnswers++;
-            } else {
-                wrongAnswers++;
-            }
+    private static final String SELECT_EXAM_BREAKDOWNS =
+            "SELECT breakdown FROM results WHERE exam_id = ? AND breakdown IS NOT NULL";
+
+    private static final String INSERT_RESULT =
+            "INSERT INTO results (exam_attempt_id, exam_id, auto_submitted, total_questions, correct_answers, " +
+            "wrong_answers, percentage, breakdown, evaluated_at, result_emailed) SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE " +
+            "WHERE NOT EXISTS (SELECT 1 FROM results WHERE exam_attempt_id = ?)";
+
+    /**
+     * Grades the given attempts and inserts their results in one JDBC batch.
+     * Attempts that are not submitted or already have a result are skipped.
+     * Returns the ids of the attempts that were graded.
+     */
+    public List<Long> gradeAttempts(Collection<Long> attemptIds) {
+        Map<Long, GradedAttempt> attempts = new LinkedHashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_UNGRADED, Map.of("ids", attemptIds), (RowCallbackHandler) rs ->
+                attempts.put(rs.getLong(1), new GradedAttempt(rs.getLong(2), rs.getObject(3) != null, rs.getBoolean(4),
+                        QUESTION_IDS.convertToEntityAttribute(rs.getString(5)))));
+        if (attempts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Grade against each exam's compiled answer key, questions are not loaded
+        Map<Long, AnswerKey> answerKeys = new HashMap<>();
+        for (GradedAttempt attempt : attempts.values()) {
+            attempt.answerKey = answerKeys.computeIfAbsent(attempt.examId,
+                    examId -> examPaperCache.getPaper(examId).getAnswerKey());
+            attempt.categoryCorrect = new int[attempt.answerKey.categoryCount()];
+            attempt.categoryAnswered = new int[attempt.answerKey.categoryCount()];
         }
+        namedParameterJdbcTemplate.query(SELECT_ANSWERS, Map.of("ids", attempts.keySet()), (RowCallbackHandler) rs -> {
+            GradedAttempt attempt = attempts.get(rs.getLong(1));
+            attempt.answered++;
+            int index = attempt.answerKey.indexOf(rs.getLong(2));
+            int category = index >= 0 ? attempt.answerKey.categoryOf(index) : -1;
+            if (category >= 0) {
+                attempt.categoryAnswered[category]++;
+            }
+            if (index >= 0 && attempt.answerKey.correctMask(index) == rs.getInt(3)) {
+                attempt.correct++;
+                if (category >= 0) {
+                    attempt.categoryCorrect[category]++;
+                }
+            }
+        });
 
-        result.setTotalQuestions(totalQuestions);
-        result.setCorrectAnswers(correctAnswers);
-        result.setWrongAnswers(wrongAnswers);
+        LocalDateTime evaluatedAt = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(attempts.size());
+        attempts.forEach((attemptId, attempt) -> {
+            // Attempts with a shuffle seed only have rows for answered questions, they are
+            // graded against the questions they were given that are still in the exam
+            int totalQuestions = attempt.answered;
+            int[] categoryTotals = attempt.categoryAnswered;
+            if (attempt.seeded && attempt.questionIds != null) {
+                categoryTotals = new int[attempt.answerKey.categoryCount()];
+                totalQuestions = attempt.answerKey.countQuestions(attempt.questionIds, categoryTotals);
+            } else if (attempt.seeded) {
+                totalQuestions = attempt.answerKey.questionCount(); // Started before the order was stored
+                categoryTotals = null;
+            }
+            int wrongAnswers = totalQuestions - attempt.correct; // Unanswered questions count as wrong
 
-        // Calculate percentage
-        double percentage = totalQuestions > 0 ? (correctAnswers * 100.0) / totalQuestions : 0.0;
-        result.setPercentage(Math.round(percentage * 100.0) / 100.0);
+            ScoreBreakdown breakdown = attempt.answerKey.breakdown(attempt.categoryCorrect, categoryTotals);
+            rows.add(new Object[]{attemptId, attempt.examId, attempt.autoSubmitted, totalQuestions, attempt.correct,
+                    wrongAnswers, percentage(attempt.correct, totalQuestions), breakdown.encode(), evaluatedAt,
+                    attemptId});
+        });
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_RESULT, rows);
 
-        Result savedResult = resultRepository.save(result);
-        examAttempt.setResult(savedResult);
-        examAttemptRepository.save(examAttempt);
+        List<Long> gradedIds = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] > 0) {
+                Object[] row = rows.get(i);
+                gradedIds.add((Long) row[0]);
+                eventPublisher.publishEvent(new ResultScoredEvent((Long) row[0],
+                        attempts.get((Long) row[0]).examId, null, (Double) row[6]));
+            }
+        }
+
+        return gradedIds;
+    }
 
-        return convertToDTO(savedResult);
+    /**
+     * Returns the ids of submitted attempts that have no result yet.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findUngradedAttemptIds() {
+        return jdbcTemplate.queryForList(SELECT_ALL_UNGRADED, Long.class);
     }
 
     public ResultDTO getResultByAttemptId(Long attemptId) {
@@ -82,31 +167,235 @@ public class ResultService {
                 .orElseThrow(() -> new RuntimeException("Exam attempt not found"));
 
         if (attempt.getResult() == null) {
+            if (attempt.getIsSubmitted()) {
+                throw new ResultPendingException(attemptId);
+            }
             throw new RuntimeException("Result not found for this attempt");
         }
 
         return convertToDTO(attempt.getResult());
     }
 
-    public List<ResultDTO> getResultsByExamId(Long examId) {
-        Exam exam = examRepository.findById(examId)
-                .orElseThrow(() -> new RuntimeException("Exam not found"));
+    /**
+     * Returns one page of the exam's results ordered by {@code sort}, with the
+     * result id as tie-breaker. Pages are addressed by the cursor of the previous
+     * page instead of an offset, and the (exam, sort column, id) indexes on
+     * results let every page start with an index seek, so a late page costs the
+     * same as the first.
+     */
+    @Transactional(readOnly = true)
+    public ResultPageDTO getResultsByExamId(Long examId, ResultSort sort, boolean ascending, String cursor,
+                                            int limit, Double minScore, Double maxScore, Boolean autoSubmitted) {
+        if (!examRepository.existsById(examId)) {
+            throw new RuntimeException("Exam not found");
+        }
+
+        String column = sort == ResultSort.PERCENTAGE ? "r.percentage" : "r.evaluated_at";
+        String comparison = ascending ? ">" : "<";
+        String direction = ascending ? "ASC" : "DESC";
+
+        StringBuilder sql = new StringBuilder(SELECT_RESULT_PAGE).append("WHERE r.exam_id = :examId");
+        MapSqlParameterSource params = new MapSqlParameterSource("examId", examId);
+        if (minScore != null) {
+            sql.append(" AND r.percentage >= :minScore");
+            params.addValue("minScore", minScore);
+        }
+        if (maxScore != null) {
+            sql.append(" AND r.percentage <= :maxScore");
+            params.addValue("maxScore", maxScore);
+        }
+        if (autoSubmitted != null) {
+            sql.append(" AND r.auto_submitted = :autoSubmitted");
+            params.addValue("autoSubmitted", autoSubmitted);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor after = PageCursor.decode(cursor, sort);
+            sql.append(" AND (").append(column).append(' ').append(comparison).append(" :afterValue OR (")
+                    .append(column).append(" = :afterValue AND r.id ").append(comparison).append(" :afterId))");
+            params.addValue("afterValue", after.value).addValue("afterId", after.id);
+        }
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction)
+                .append(", r.id ").append(direction).append(" LIMIT :limit");
+        params.addValue("limit", limit + 1); // One extra row tells whether there is a next page
+
+        List<ResultDTO> items = new ArrayList<>();
+        List<Object> sortValues = new ArrayList<>();
+        namedParameterJdbcTemplate.query(sql.toString(), params, (RowCallbackHandler) rs -> {
+            ResultDTO dto = new ResultDTO();
+            dto.setId(rs.getLong(1));
+            dto.setExamAttemptId(rs.getLong(2));
+            dto.setTotalQuestions(rs.getInt(3));
+            dto.setCorrectAnswers(rs.getInt(4));
+            dto.setWrongAnswers(rs.getInt(5));
+            dto.setPercentage(rs.getDouble(6));
+            dto.setEvaluatedAt(rs.getTimestamp(7).toLocalDateTime().format(FORMATTER));
+            dto.setAutoSubmitted(rs.getBoolean(8));
+            dto.setCandidateName(rs.getString(9));
+            dto.setCandidateEmail(rs.getString(10));
+            dto.setBreakdown(toBreakdownDTOs(rs.getBytes(11) != null ? ScoreBreakdown.decode(rs.getBytes(11)) : null));
+            setStanding(dto, examId);
+            items.add(dto);
+            sortValues.add(sort == ResultSort.PERCENTAGE ? rs.getDouble(6) : rs.getTimestamp(7).toLocalDateTime());
+        });
+
+        boolean hasMore = items.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            items.remove(limit);
+            nextCursor = new PageCursor(sortValues.get(limit - 1), items.get(limit - 1).getId()).encode(sort);
+        }
+        return new ResultPageDTO(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Sums the stored breakdowns of the exam's results per difficulty, per topic
+     * and per (difficulty, topic). Only the compact breakdown column is read, the
+     * answers and questions are not joined.
+     */
+    @Transactional(readOnly = true)
+    public ExamBreakdownDTO getExamBreakdown(Long examId) {
+        if (!examRepository.existsById(examId)) {
+            throw new RuntimeException("Exam not found");
+        }
+
+        Map<DifficultyLevel, long[]> byDifficulty = new EnumMap<>(DifficultyLevel.class);
+        Map<String, long[]> byTopic = new TreeMap<>();
+        Map<DifficultyLevel, Map<String, long[]>> byDifficultyAndTopic = new EnumMap<>(DifficultyLevel.class);
+        long[] resultCount = new long[1];
+        jdbcTemplate.query(SELECT_EXAM_BREAKDOWNS, (RowCallbackHandler) rs -> {
+            ScoreBreakdown breakdown = ScoreBreakdown.decode(rs.getBytes(1));
+            for (int i = 0; i < breakdown.size(); i++) {
+                addTo(byDifficulty.computeIfAbsent(breakdown.getDifficulty(i), d -> new long[2]), breakdown, i);
+                addTo(byTopic.computeIfAbsent(breakdown.getTopic(i), t -> new long[2]), breakdown, i);
+                addTo(byDifficultyAndTopic.computeIfAbsent(breakdown.getDifficulty(i), d -> new TreeMap<>())
+                        .computeIfAbsent(breakdown.getTopic(i), t -> new long[2]), breakdown, i);
+            }
+            resultCount[0]++;
+        }, examId);
+
+        ExamBreakdownDTO dto = new ExamBreakdownDTO();
+        dto.setExamId(examId);
+        dto.setResultCount(resultCount[0]);
+        dto.setByDifficulty(new ArrayList<>());
+        byDifficulty.forEach((difficulty, sums) -> dto.getByDifficulty().add(toBreakdownDTO(difficulty, null, sums)));
+        dto.setByTopic(new ArrayList<>());
+        byTopic.forEach((topic, sums) -> dto.getByTopic().add(toBreakdownDTO(null, topic, sums)));
+        dto.setByDifficultyAndTopic(new ArrayList<>());
+        byDifficultyAndTopic.forEach((difficulty, topics) -> topics.forEach((topic, sums) ->
+                dto.getByDifficultyAndTopic().add(toBreakdownDTO(difficulty, topic, sums))));
+        return dto;
+    }
+
+    private static void addTo(long[] sums, ScoreBreakdown breakdown, int index) {
+        sums[0] += breakdown.getCorrect(index);
+        sums[1] += breakdown.getTotal(index);
+    }
 
-        List<Result> results = resultRepository.findByExamAttempt_Exam(exam);
-        return results.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private static ScoreBreakdownDTO toBreakdownDTO(DifficultyLevel difficulty, String topic, long[] sums) {
+        double percentage = sums[1] > 0 ? Math.round(sums[0] * 10000.0 / sums[1]) / 100.0 : 0.0;
+        return new ScoreBreakdownDTO(difficulty, topic, sums[0], sums[1], percentage);
+    }
+
+    /**
+     * Score percentage rounded to two decimals.
+     */
+    static double percentage(int correctAnswers, int totalQuestions) {
+        double percentage = totalQuestions > 0 ? (correctAnswers * 100.0) / totalQuestions : 0.0;
+        return Math.round(percentage * 100.0) / 100.0;
     }
 
     private ResultDTO convertToDTO(Result result) {
         ResultDTO dto = new ResultDTO();
         dto.setId(result.getId());
         dto.setExamAttemptId(result.getExamAttempt().getId());
+        dto.setCandidateName(result.getExamAttempt().getCandidate().getName());
+        dto.setCandidateEmail(result.getExamAttempt().getCandidate().getEmail());
+        dto.setAutoSubmitted(result.getExamAttempt().getIsAutoSubmitted());
         dto.setTotalQuestions(result.getTotalQuestions());
         dto.setCorrectAnswers(result.getCorrectAnswers());
         dto.setWrongAnswers(result.getWrongAnswers());
         dto.setPercentage(result.getPercentage());
         dto.setEvaluatedAt(result.getEvaluatedAt().format(FORMATTER));
+        dto.setBreakdown(toBreakdownDTOs(result.getBreakdown()));
+        setStanding(dto, result.getExamAttempt().getExam().getId());
         return dto;
     }
+
+    private List<ScoreBreakdownDTO> toBreakdownDTOs(ScoreBreakdown breakdown) {
+        if (breakdown == null) {
+            return null;
+        }
+        List<ScoreBreakdownDTO> entries = new ArrayList<>(breakdown.size());
+        for (int i = 0; i < breakdown.size(); i++) {
+            entries.add(new ScoreBreakdownDTO(breakdown.getDifficulty(i), breakdown.getTopic(i),
+                    (long) breakdown.getCorrect(i), (long) breakdown.getTotal(i),
+                    percentage(breakdown.getCorrect(i), breakdown.getTotal(i))));
+        }
+        return entries;
+    }
+
+    private void setStanding(ResultDTO dto, Long examId) {
+        LeaderboardService.Standing standing = leaderboardService.getStanding(examId, dto.getPercentage());
+        if (standing != null) {
+            dto.setRank(standing.getRank());
+            dto.setPercentile(standing.getPercentile());
+        }
+    }
+
+    public enum ResultSort {
+        PERCENTAGE, EVALUATED_AT
+    }
+
+    /**
+     * Sort value and id of the last row of a page, encoded as an opaque URL-safe
+     * token that names the sort it belongs to.
+     */
+    private static final class PageCursor {
+        private final Object value;
+        private final long id;
+
+        private PageCursor(Object value, long id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        private String encode(ResultSort sort) {
+            String raw = sort.name() + "|" + value + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static PageCursor decode(String cursor, ResultSort sort) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                    throw new IllegalArgumentException("Cursor does not belong to this sort order");
+                }
+                Object value = sort == ResultSort.PERCENTAGE
+                        ? (Object) Double.valueOf(parts[1])
+                        : Timestamp.valueOf(LocalDateTime.parse(parts[1]));
+                return new PageCursor(value, Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+            }
+        }
+    }
+
+    private static class GradedAttempt {
+        private final long examId;
+        private final boolean seeded;
+        private final boolean autoSubmitted;
+        private AnswerKey answerKey;
+        private int answered;
+        private int correct;
+        private int[] categoryCorrect;
+        private int[] categoryAnswered;
+        private final List<Long> questionIds; // Null for attempts started before the order was stored
+
+        private GradedAttempt(long examId, boolean seeded, boolean autoSubmitted, List<Long> questionIds) {
+            this.examId = examId;
+            this.seeded = seeded;
+            this.autoSubmitted = autoSubmitted;
+            this.questionIds = questionIds;
+        }
+    }
 }
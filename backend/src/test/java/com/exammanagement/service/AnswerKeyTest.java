@@ -0,0 +1,135 @@
+package com.exammanagement.service;
+
+import com.exammanagement.model.AttemptAnswer;
+import com.exammanagement.model.DifficultyLevel;
+import com.exammanagement.model.OptionSet;
+import com.exammanagement.model.Question;
+import com.exammanagement.model.ScoreBreakdown;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that grading against the compiled {@link AnswerKey} scores attempts
+ * exactly like comparing each answer with its question's correct options.
+ */
+class AnswerKeyTest {
+
+    private static final int QUESTIONS = 200;
+    private static final int OPTIONS = 5;
+    private static final int ATTEMPTS = 2_000;
+
+    private final Random random = new Random(42);
+
+    private Map<Long, Question> questions;
+    private ExamPaper paper;
+    private List<List<AttemptAnswer>> attempts;
+
+    @BeforeEach
+    void setUp() {
+        questions = new HashMap<>();
+        Map<Long, ExamPaper.PaperQuestion> paperQuestions = new HashMap<>();
+        List<Long> questionIds = new ArrayList<>();
+        DifficultyLevel[] difficulties = DifficultyLevel.values();
+        for (int i = 0; i < QUESTIONS; i++) {
+            long id = 1000L + i * 3L; // Not contiguous
+            Question question = new Question();
+            question.setId(id);
+            question.setCorrectOptions(randomSelection());
+            question.setDifficultyLevel(difficulties[random.nextInt(difficulties.length)]);
+            question.setTopic("Topic " + random.nextInt(4));
+            questions.put(id, question);
+            questionIds.add(id);
+            paperQuestions.put(id, new ExamPaper.PaperQuestion(id, "Question " + id, null, null, List.of(),
+                    question.getCorrectOptions(), question.getDifficultyLevel(), question.getTopic()));
+        }
+        paper = new ExamPaper(1L, "Exam", questionIds, paperQuestions);
+
+        attempts = new ArrayList<>();
+        for (int a = 0; a < ATTEMPTS; a++) {
+            List<AttemptAnswer> answers = new ArrayList<>();
+            for (Question question : questions.values()) {
+                if (random.nextInt(10) == 0) {
+                    continue; // Unanswered
+                }
+                AttemptAnswer answer = new AttemptAnswer();
+                answer.setQuestion(question);
+                // Correct about half of the time, so both outcomes are common
+                answer.setSelectedOptions(random.nextBoolean() ? question.getCorrectOptions() : randomSelection());
+                answers.add(answer);
+            }
+            attempts.add(answers);
+        }
+    }
+
+    @Test
+    void compiledKeyScoresLikePerAnswerGrading() {
+        AnswerKey key = paper.getAnswerKey();
+        for (List<AttemptAnswer> answers : attempts) {
+            long[] questionIds = new long[answers.size()];
+            int[] selectedMasks = new int[answers.size()];
+            for (int i = 0; i < answers.size(); i++) {
+                questionIds[i] = answers.get(i).getQuestion().getId();
+                selectedMasks[i] = answers.get(i).getSelectedOptions().toMask();
+            }
+
+            assertEquals(gradePerAnswer(answers), key.countCorrect(questionIds, selectedMasks, 0, answers.size()));
+
+            // The breakdown's categories add up to the same score
+            ScoreBreakdown breakdown = key.breakdown(questionIds, selectedMasks, 0, answers.size(), true);
+            int breakdownCorrect = 0;
+            for (int i = 0; i < breakdown.size(); i++) {
+                breakdownCorrect += breakdown.getCorrect(i);
+            }
+            assertEquals(gradePerAnswer(answers), breakdownCorrect);
+        }
+    }
+
+    @Test
+    void questionsOutsideTheExamAreNeverCorrect() {
+        AnswerKey key = paper.getAnswerKey();
+        long foreignId = 999L;
+        assertFalse(key.isCorrect(foreignId, 0));
+        assertEquals(0, key.countCorrect(new long[]{foreignId}, new int[]{0}, 0, 1));
+    }
+
+    @Test
+    void givenQuestionsTotalOnlyThoseStillInTheExam() {
+        AnswerKey key = paper.getAnswerKey();
+        List<Long> given = new ArrayList<>(paper.getQuestionIds().subList(0, 50));
+        given.add(999L); // Removed from the exam since the attempt started
+
+        int[] categoryTotals = new int[key.categoryCount()];
+        assertEquals(50, key.countQuestions(given, categoryTotals));
+
+        ScoreBreakdown breakdown = key.breakdown(new long[0], new int[0], 0, 0, categoryTotals);
+        int breakdownTotal = 0;
+        for (int i = 0; i < breakdown.size(); i++) {
+            breakdownTotal += breakdown.getTotal(i);
+        }
+        assertEquals(50, breakdownTotal);
+    }
+
+    // Reference grading: compare each answer with its question's correct options
+    private static int gradePerAnswer(List<AttemptAnswer> answers) {
+        int correct = 0;
+        for (AttemptAnswer answer : answers) {
+            if (answer.getSelectedOptions().equals(answer.getQuestion().getCorrectOptions())) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private OptionSet randomSelection() {
+        return OptionSet.fromMask(1 + random.nextInt((1 << OPTIONS) - 1));
+    }
+}
@@ -0,0 +1,181 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.DashboardDTO;
+import com.exammanagement.model.Candidate;
+import com.exammanagement.model.Exam;
+import com.exammanagement.model.ExamAttempt;
+import com.exammanagement.model.Result;
+import com.exammanagement.model.User;
+import com.exammanagement.repository.CandidateRepository;
+import com.exammanagement.repository.ExamAttemptRepository;
+import com.exammanagement.repository.ExamRepository;
+import com.exammanagement.repository.ResultRepository;
+import com.exammanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the dashboard is built with a fixed number of SQL statements,
+ * however many exams, attempts and results the examiner has. Statements are
+ * counted by a {@link DataSource} proxy, only for the test thread, so
+ * background flushes and schedulers do not affect the count.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboard-test",
+        "spring.jpa.show-sql=false",
+        "exam.search.index-dir=target/test-question-index"
+})
+class DashboardServiceTest {
+
+    private static final int DASHBOARD_STATEMENTS = 3;
+
+    private static final ThreadLocal<int[]> statementCount = new ThreadLocal<>();
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ExamAttemptRepository examAttemptRepository;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int nextId;
+
+    @Test
+    void dashboardStatementsDoNotDependOnDataSize() {
+        createExams(1, 1);
+        DashboardDTO small = dashboardService.getDashboard("admin"); // Warms up lazily initialized beans
+        assertEquals(DASHBOARD_STATEMENTS, countStatements());
+        assertEquals(1, small.getTotalExams());
+
+        createExams(20, 15);
+        assertEquals(DASHBOARD_STATEMENTS, countStatements());
+
+        DashboardDTO large = dashboardService.getDashboard("admin");
+        assertEquals(21, large.getTotalExams());
+        assertEquals(301, large.getTotalAttempts());
+        assertEquals(10, large.getRecentResults().size());
+    }
+
+    private int countStatements() {
+        statementCount.set(new int[1]);
+        try {
+            dashboardService.getDashboard("admin");
+            return statementCount.get()[0];
+        } finally {
+            statementCount.remove();
+        }
+    }
+
+    private void createExams(int exams, int attemptsPerExam) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User admin = userRepository.findByUsername("admin").orElseThrow();
+            for (int e = 0; e < exams; e++) {
+                Exam exam = new Exam();
+                exam.setName("Exam " + nextId);
+                exam.setDurationMinutes(30);
+                exam.setTotalQuestions(0);
+                exam.setAccessCode("TEST" + nextId++);
+                exam.setCreatedBy(admin);
+                examRepository.save(exam);
+
+                for (int a = 0; a < attemptsPerExam; a++) {
+                    Candidate candidate = new Candidate();
+                    candidate.setName("Candidate " + nextId);
+                    candidate.setEmail("candidate" + nextId++ + "@example.com");
+                    candidateRepository.save(candidate);
+
+                    ExamAttempt attempt = new ExamAttempt();
+                    attempt.setExam(exam);
+                    attempt.setCandidate(candidate);
+                    attempt.setStartedAt(LocalDateTime.now());
+                    attempt.setSubmittedAt(LocalDateTime.now());
+                    attempt.setDeadline(LocalDateTime.now().plusMinutes(30));
+                    attempt.setTimeRemainingSeconds(0);
+                    attempt.setIsSubmitted(true);
+                    examAttemptRepository.save(attempt);
+
+                    Result result = new Result();
+                    result.setExamAttempt(attempt);
+                    result.setExamId(exam.getId());
+                    result.setAutoSubmitted(false);
+                    result.setTotalQuestions(10);
+                    result.setCorrectAnswers(a % 11);
+                    result.setWrongAnswers(10 - a % 11);
+                    result.setPercentage(a % 11 * 10.0);
+                    resultRepository.save(result);
+                }
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                            (proxy, method, args) -> {
+                                Object value = invoke(dataSource, method, args);
+                                return value instanceof Connection connection ? countingConnection(connection) : value;
+                            });
+                }
+            };
+        }
+
+        private static Connection countingConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        int[] count = statementCount.get();
+                        if (count != null && STATEMENT_METHODS.contains(method.getName())) {
+                            count[0]++;
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.exammanagement.service;
+
+import com.exammanagement.dto.QuestionDTO;
+import com.exammanagement.dto.QuestionOptionDTO;
+import com.exammanagement.dto.QuestionSearchHitDTO;
+import com.exammanagement.dto.QuestionSearchResultDTO;
+import com.exammanagement.model.DifficultyLevel;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks ranking, prefix matching and incremental updates of the question
+ * search index, and that the fingerprint committed with the index follows
+ * every indexed change.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search-test",
+        "spring.jpa.show-sql=false",
+        "exam.search.commit-interval-ms=3600000"
+})
+class QuestionSearchIndexTest {
+
+    @TempDir
+    static Path indexDir;
+
+    @DynamicPropertySource
+    static void indexProperties(DynamicPropertyRegistry registry) {
+        registry.add("exam.search.index-dir", indexDir::toString);
+    }
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Test
+    void ranksTopicAboveTextAboveOptions() throws IOException {
+        Long inOption = create("Which structure fits?", "Trees", DifficultyLevel.EASY, "heap", "stack");
+        Long inText = create("Is a heap complete?", "Trees", DifficultyLevel.EASY, "yes", "no");
+        Long inTopic = create("Which property holds?", "Heap", DifficultyLevel.EASY, "order", "shape");
+
+        QuestionSearchResultDTO result = questionSearchIndex.search("heap", null, 10);
+
+        assertEquals(List.of(inTopic, inText, inOption), ids(result.getHits()));
+        assertEquals(3L, result.getTotalHits());
+    }
+
+    @Test
+    void ranksExactTermsAbovePrefixes() throws IOException {
+        Long prefix = create("Query a graphql endpoint", "Protocols", DifficultyLevel.MEDIUM, "a", "b");
+        Long exact = create("Query a graph endpoint", "Protocols", DifficultyLevel.MEDIUM, "a", "b");
+
+        assertEquals(List.of(exact, prefix), ids(questionSearchIndex.search("graph", null, 10).getHits()));
+    }
+
+    @Test
+    void matchesPrefixesAndRequiresEveryTerm() throws IOException {
+        Long quicksort = create("Worst case of quicksort partitioning", "Sorting", DifficultyLevel.HARD, "n", "n^2");
+        create("Best case of mergesort", "Sorting", DifficultyLevel.HARD, "n", "n log n");
+
+        assertEquals(List.of(quicksort), ids(questionSearchIndex.search("quick", null, 10).getHits()));
+        assertEquals(List.of(quicksort), ids(questionSearchIndex.search("partition worst", null, 10).getHits()));
+        assertEquals(0L, questionSearchIndex.search("partition best", null, 10).getTotalHits());
+    }
+
+    @Test
+    void countsAllMatchesBeyondTheLimit() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            create("Trie lookup " + i, "Strings", i % 2 == 0 ? DifficultyLevel.EASY : DifficultyLevel.HARD, "a", "b");
+        }
+
+        QuestionSearchResultDTO result = questionSearchIndex.search("trie", null, 2);
+        assertEquals(2, result.getHits().size());
+        assertEquals(5L, result.getTotalHits());
+        assertEquals(3L, questionSearchIndex.search("trie", DifficultyLevel.EASY, 10).getTotalHits());
+    }
+
+    @Test
+    void appliesUpdatesAndDeletesIncrementally() throws IOException {
+        Long id = create("What does a bloom filter answer?", "Hashing", DifficultyLevel.MEDIUM, "membership", "order");
+        assertEquals(List.of(id), ids(questionSearchIndex.search("bloom", null, 10).getHits()));
+
+        questionService.updateQuestion(id, question("What does a cuckoo filter answer?", "Hashing",
+                DifficultyLevel.MEDIUM, "membership", "order"));
+        assertEquals(0L, questionSearchIndex.search("bloom", null, 10).getTotalHits());
+        assertEquals(List.of(id), ids(questionSearchIndex.search("cuckoo", null, 10).getHits()));
+
+        questionService.updateQuestion(id, question("What does a cuckoo filter answer?", "Hashing",
+                DifficultyLevel.MEDIUM, "membership", "eviction"));
+        assertEquals(List.of(id), ids(questionSearchIndex.search("eviction", null, 10).getHits()));
+
+        questionService.deleteQuestion(id);
+        assertEquals(0L, questionSearchIndex.search("cuckoo", null, 10).getTotalHits());
+    }
+
+    @Test
+    void committedFingerprintFollowsOptionOnlyEdits() throws IOException {
+        Long id = create("Which collision strategy?", "Probing", DifficultyLevel.EASY, "linear", "quadratic");
+        questionSearchIndex.commitPending();
+        String before = committedFingerprint();
+
+        questionService.updateQuestion(id, question("Which collision strategy?", "Probing", DifficultyLevel.EASY,
+                "linear", "double hashing"));
+        questionSearchIndex.commitPending();
+        String after = committedFingerprint();
+
+        assertNotEquals(before, after);
+        assertTrue(after.startsWith(questionService.getAllQuestions().size() + ":"));
+    }
+
+    private Long create(String text, String topic, DifficultyLevel difficulty, String... options) {
+        return questionService.createQuestion(question(text, topic, difficulty, options), "admin").getId();
+    }
+
+    private static QuestionDTO question(String text, String topic, DifficultyLevel difficulty, String... options) {
+        QuestionDTO question = new QuestionDTO();
+        question.setQuestionText(text);
+        question.setTopic(topic);
+        question.setDifficultyLevel(difficulty);
+        for (String option : options) {
+            question.getOptions().add(new QuestionOptionDTO(null, option, null));
+        }
+        question.getCorrectAnswerIndices().add(0);
+        return question;
+    }
+
+    private static List<Long> ids(List<QuestionSearchHitDTO> hits) {
+        return hits.stream().map(QuestionSearchHitDTO::getId).toList();
+    }
+
+    private static String committedFingerprint() throws IOException {
+        try (Directory directory = FSDirectory.open(indexDir)) {
+            return SegmentInfos.readLatestCommit(directory).getUserData().get("fingerprint");
+        }
+    }
+}
@@ -1,8 +1,9 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router, RouterModule } from '@angular/router';
-import { QuestionService, Question } from '../../../services/question.service';
+import { Subject, Subscription, catchError, debounceTime, of, switchMap } from 'rxjs';
+import { QuestionService, Question, QuestionSearchResult, QuestionSummary } from '../../../services/question.service';
 import { AuthService } from '../../../services/auth.service';
 
 @Component({
@@ -12,16 +13,30 @@ import { AuthService } from '../../../services/auth.service';
   templateUrl: './question-list.component.html',
   styleUrls: ['./question-list.component.css']
 })
-export class QuestionListComponent implements OnInit {
-  questions: Question[] = [];
+export class QuestionListComponent implements OnInit, OnDestroy {
+  // Question summaries, one page at a time
+  questions: QuestionSummary[] = [];
+  nextCursor?: string;
+  hasMore = false;
   isLoading = false;
+  isLoadingMore = false;
   errorMessage = '';
+
+  // Full questions of expanded cards, loaded on demand
+  expandedIds = new Set<number>();
+  details: { [id: number]: Question } = {};
   
   // Filter options
   selectedDifficulty: string = '';
   selectedTopic: string = '';
   selectedDate: string = '';
   
+  // Full-text search, replaces the list while a query is entered
+  searchQuery: string = '';
+  searchResult: QuestionSearchResult | null = null;
+  private searchTerms = new Subject<string>();
+  private searchSubscription?: Subscription;
+
   // Available filter values
   difficulties = ['EASY', 'MEDIUM', 'HARD'];
   topics: string[] = [];
@@ -38,41 +53,104 @@ export class QuestionListComponent implements OnInit {
       return;
     }
     
+    this.searchSubscription = this.searchTerms.pipe(
+      debounceTime(250),
+      switchMap(query => query
+        ? this.questionService.searchQuestions(query, this.selectedDifficulty || undefined).pipe(
+            catchError(error => {
+              this.errorMessage = 'Error searching questions';
+              console.error('Error:', error);
+              return of(null);
+            }))
+        : of(null))
+    ).subscribe(result => this.searchResult = result);
+
+    this.loadTopics();
     this.loadQuestions();
   }
 
+  ngOnDestroy(): void {
+    this.searchSubscription?.unsubscribe();
+  }
+
+  onSearchChange(): void {
+    this.searchTerms.next(this.searchQuery.trim());
+  }
+
   loadQuestions(): void {
     this.isLoading = true;
     this.errorMessage = '';
+    this.expandedIds.clear();
+
+    this.loadPage(undefined, () => this.isLoading = false);
+  }
+
+  loadMore(): void {
+    if (!this.hasMore || this.isLoadingMore) {
+      return;
+    }
+    this.isLoadingMore = true;
+    this.loadPage(this.nextCursor, () => this.isLoadingMore = false);
+  }
 
-    this.questionService.getAllQuestions(
+  private loadPage(cursor: string | undefined, done: () => void): void {
+    this.questionService.getQuestionSummaries(
       this.selectedDifficulty || undefined,
       this.selectedTopic || undefined,
-      this.selectedDate || undefined
+      this.selectedDate || undefined,
+      cursor
     ).subscribe({
-      next: (data) => {
-        this.questions = data;
-        this.extractTopics();
-        this.isLoading = false;
+      next: (page) => {
+        this.questions = cursor ? [...this.questions, ...page.items] : page.items;
+        this.nextCursor = page.nextCursor;
+        this.hasMore = page.hasMore;
+        done();
       },
       error: (error) => {
         this.errorMessage = 'Error loading questions';
-        this.isLoading = false;
+        done();
         console.error('Error:', error);
       }
     });
   }
 
-  extractTopics(): void {
-    const uniqueTopics = [...new Set(this.questions.map(q => q.topic))];
-    this.topics = uniqueTopics.sort();
+  loadTopics(): void {
+    this.questionService.getAvailability().subscribe({
+      next: (availability) => {
+        this.topics = [...new Set(availability.map(a => a.topic))].sort();
+      },
+      error: (error) => console.error('Error:', error)
+    });
+  }
+
+  toggleDetails(id: number): void {
+    if (this.expandedIds.has(id)) {
+      this.expandedIds.delete(id);
+      return;
+    }
+    this.expandedIds.add(id);
+    if (!this.details[id]) {
+      this.questionService.getQuestionById(id).subscribe({
+        next: (question) => this.details[id] = question,
+        error: (error) => {
+          this.expandedIds.delete(id);
+          this.errorMessage = 'Error loading question';
+          console.error('Error:', error);
+        }
+      });
+    }
   }
 
   onFilterChange(): void {
     this.loadQuestions();
+    if (this.searchQuery.trim()) {
+      this.onSearchChange();
+    }
   }
 
   clearFilters(): void {
+    this.searchQuery = '';
+    this.searchTerms.next('');
     this.selectedDifficulty = '';
     this.selectedTopic = '';
     this.selectedDate = '';
@@ -83,7 +161,10 @@ export class QuestionListComponent implements OnInit {
     if (confirm('Are you sure you want to delete this question?')) {
       this.questionService.deleteQuestion(id).subscribe({
         next: () => {
-          this.loadQuestions();
+          this.questions = this.questions.filter(q => q.id !== id);
+          this.expandedIds.delete(id);
+          delete this.details[id];
+          this.loadTopics();
         },
         error: (error) => {
           this.errorMessage = 'Error deleting question';
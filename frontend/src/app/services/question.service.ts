@@ -8,6 +8,18 @@ export interface QuestionOption {
   optionImageUrl?: string;
 }
 
+export interface QuestionAnalysis {
+  questionId: number;
+  examId?: number;
+  responseCount: number;
+  omittedCount: number;
+  correctCount: number;
+  proportionCorrect?: number;
+  pointBiserial?: number;
+  optionCounts: number[];
+  computedAt: string;
+}
+
 export interface Question {
   id?: number;
   questionText: string;
@@ -22,6 +34,42 @@ export interface Question {
   createdBy?: string;
   createdAt?: string;
   updatedAt?: string;
+  analysis?: QuestionAnalysis;
+}
+
+export interface QuestionSummary {
+  id: number;
+  questionText: string;
+  difficultyLevel: 'EASY' | 'MEDIUM' | 'HARD';
+  topic: string;
+  optionCount: number;
+  createdAt: string;
+}
+
+export interface QuestionPage {
+  items: QuestionSummary[];
+  nextCursor?: string;
+  hasMore: boolean;
+}
+
+export interface QuestionAvailability {
+  difficultyLevel: 'EASY' | 'MEDIUM' | 'HARD';
+  topic: string;
+  questionCount: number;
+}
+
+export interface QuestionSearchHit {
+  id: number;
+  questionText: string;
+  topic: string;
+  difficultyLevel: 'EASY' | 'MEDIUM' | 'HARD';
+  score: number;
+}
+
+export interface QuestionSearchResult {
+  query: string;
+  totalHits: number;
+  hits: QuestionSearchHit[];
 }
 
 @Injectable({
@@ -53,6 +101,28 @@ export class QuestionService {
     return this.http.get<Question[]>(this.apiUrl, { params });
   }
 
+  getQuestionSummaries(difficulty?: string, topic?: string, startDate?: string,
+                       cursor?: string, limit = 50): Observable<QuestionPage> {
+    let params = new HttpParams().set('limit', limit);
+    if (difficulty) params = params.set('difficulty', difficulty);
+    if (topic) params = params.set('topic', topic);
+    if (startDate) params = params.set('startDate', startDate);
+    if (cursor) params = params.set('cursor', cursor);
+
+    return this.http.get<QuestionPage>(`${this.apiUrl}/summaries`, { params });
+  }
+
+  getAvailability(): Observable<QuestionAvailability[]> {
+    return this.http.get<QuestionAvailability[]>(`${this.apiUrl}/availability`);
+  }
+
+  searchQuestions(query: string, difficulty?: string, limit = 20): Observable<QuestionSearchResult> {
+    let params = new HttpParams().set('q', query).set('limit', limit);
+    if (difficulty) params = params.set('difficulty', difficulty);
+
+    return this.http.get<QuestionSearchResult>(`${this.apiUrl}/search`, { params });
+  }
+
   deleteQuestion(id: number): Observable<any> {
     return this.http.delete(`${this.apiUrl}/${id}`);
   }